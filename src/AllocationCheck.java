@@ -0,0 +1,139 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Command-line check that the daily step stays free of garbage.
+ * Runs a seeded Covid-19 epidemic with vaccination and measures the heap
+ * bytes of every step (SimulationConfig.measureAllocations). Working sets
+ * grow to their high-water marks while the epidemic rises, and each day
+ * bucket of the timing wheel reaches its own only when the ring comes back
+ * around to it, so checking starts one turn of the wheel after the peak.
+ * From then on a serial step must allocate nothing; with worker threads
+ * only the few bytes the fork/join pool takes to park the calling thread
+ * are allowed. The run is made twice: with a bounded history, and with a
+ * history spilled to disk every few days, so the spill is checked too.
+ * A history that is neither bounded nor spilled grows on the heap, and is
+ * not covered. Exits with status 1 otherwise, so it can guard a build.
+ *
+ * Usage: java AllocationCheck [size] [days] [parallelism] [fused]
+ */
+
+// AllocationCheck IS-A command-line allocation regression check
+// AllocationCheck HAS-A Controller running the checked simulation
+public class AllocationCheck
+{
+    private static final int SETTLE_DAYS = 64;      // days after the peak before checking starts (one wheel turn)
+    private static final long POOL_ALLOWANCE = 256;  // bytes per parallel step for the pool's join bookkeeping
+    private static final int BOUNDED_CAPACITY = 64;  // statistics capacity of the bounded run
+    private static final int SPILL_HOT_DAYS = 16;    // statistics hot days of the spilled run
+
+    /**
+     * Runs the check
+     *
+     * @param args size, days, parallelism and "fused", all optional
+     */
+    public static void main(String[] args)
+    {
+        long size = args.length > 0 ? Long.parseLong(args[0]) : 250_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        boolean fused = args.length > 3 && args[3].equals("fused");
+
+        // one controller for both runs, so the first run's workers are stopped before the second
+        Controller controller = new Controller();
+        boolean passed = check(controller, size, days, parallelism, fused, BOUNDED_CAPACITY, 0);
+        passed &= check(controller, size, days, parallelism, fused, 0, SPILL_HOT_DAYS);
+
+        if (!passed)
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one seeded simulation and checks the allocations of its steps
+     *
+     * @param controller controller to run the simulation with
+     * @param size number of people
+     * @param maxDays maximum number of days
+     * @param parallelism worker threads per day
+     * @param fused true to run each day as one fused pass
+     * @param capacity statistics capacity (0 = unbounded)
+     * @param hotDays statistics hot days (0 = never spill)
+     * @return true if no checked day allocated more than allowed
+     */
+    private static boolean check(Controller controller, long size, int maxDays, int parallelism, boolean fused, int capacity, int hotDays)
+    {
+        SimulationConfig config = new SimulationConfig();
+        config.getPopulation().setSize(size);
+        config.maxDays = maxDays;
+        config.parallelism = parallelism;
+        config.fusedStep = fused;
+        config.setDisease(new Covid19());
+        config.vaccinationEnabled = true;
+        config.seed = 42;
+        config.statisticsCapacity = capacity;
+        config.statisticsHotDays = hotDays;
+        config.measureAllocations = true;
+
+        controller.applyConfig(config);
+        Population population = controller.getPopulation();
+
+        for (long cell = 0; cell < population.size(); cell += 9_973)
+        {
+            population.infect(cell, controller.getDisease());
+        }
+
+        long[] allocated = new long[config.maxDays];
+        long[] infected = new long[config.maxDays];
+        int days = 0;
+        boolean running = true;
+
+        while (running)
+        {
+            running = controller.step();
+            DayReport report = controller.getLastReport();
+            allocated[days] = report.getAllocatedBytes();
+            infected[days] = report.getCount(HealthStatus.INFECTED) + report.getCount(HealthStatus.CONTAGIOUS);
+            days++;
+        }
+        controller.getStatistics().close();
+
+        if (allocated[0] < 0)
+        {
+            System.out.println("This JVM does not count allocated bytes per thread; nothing checked.");
+            return true;
+        }
+
+        int peak = 0;
+
+        for (int day = 1; day < days; day++)
+        {
+            if (infected[day] > infected[peak])
+            {
+                peak = day;
+            }
+        }
+
+        long allowed = config.parallelism > 1 ? POOL_ALLOWANCE : 0;
+        int failures = 0;
+
+        for (int day = peak + SETTLE_DAYS; day < days; day++)
+        {
+            if (allocated[day] > allowed)
+            {
+                System.out.println("Day " + day + " allocated " + allocated[day] + " bytes");
+                failures++;
+            }
+        }
+
+        int checked = Math.max(0, days - peak - SETTLE_DAYS);
+        String history = hotDays > 0 ? "spilled every " + hotDays + " days" : "bounded to " + capacity + " days";
+        System.out.println("History " + history + ": peak on day " + peak + "; "
+                           + checked + " days checked, " + failures + " allocated");
+        return failures == 0 && checked > 0;
+    }
+}
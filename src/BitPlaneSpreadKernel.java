@@ -0,0 +1,152 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Runs the pull scan over a BitPlaneStore a word at a time. For every
+ * 64-person word the contagious words of the 24 neighbor offsets are
+ * shifted into place and summed with a 5-bit bit-sliced adder, so the
+ * neighbor count of all 64 people is built with word operations. Only
+ * susceptible people with at least one contagious neighbor read their
+ * count back and draw, using the same draw and probability as the generic
+ * scan, so both give identical results. Pushes use the generic scan.
+ */
+
+// BitPlaneSpreadKernel IS-A SpreadKernel
+// BitPlaneSpreadKernel HAS-A BitPlaneStore it reads
+public class BitPlaneSpreadKernel extends SpreadKernel
+{
+    private final BitPlaneStore store;          // bit-packed store of the population
+
+    /**
+     * Constructs the kernel of a store
+     *
+     * @param store bit-packed store of the population
+     */
+    public BitPlaneSpreadKernel(BitPlaneStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Pulls into the stripe's susceptible people a word at a time
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     */
+    @Override
+    public void pull(Population population, Disease disease, int stripe, CellList own)
+    {
+        int cols = population.getColumnCount();
+        int words = store.getWordsPerRow();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        if (stripeStart >= stripeEnd)
+        {
+            return;
+        }
+
+        for (int row = (int) (stripeStart / cols); row <= (int) ((stripeEnd - 1) / cols); row++)
+        {
+            for (int word = 0; word < words; word++)
+            {
+                long susceptible = store.getSusceptibleWord(row, word);
+
+                if (susceptible == 0)
+                {
+                    continue;
+                }
+
+                // bit b of every neighbor count, 24 fits in 5 bits; locals, so nothing is allocated
+                long sum0 = 0;
+                long sum1 = 0;
+                long sum2 = 0;
+                long sum3 = 0;
+                long sum4 = 0;
+
+                for (int dr = -Disease.NEIGHBORHOOD_RADIUS; dr <= Disease.NEIGHBORHOOD_RADIUS; dr++)
+                {
+                    long previous = store.getContagiousWord(row + dr, word - 1);
+                    long current = store.getContagiousWord(row + dr, word);
+                    long next = store.getContagiousWord(row + dr, word + 1);
+
+                    if ((previous | current | next) == 0)
+                    {
+                        continue;
+                    }
+
+                    for (int dc = -Disease.NEIGHBORHOOD_RADIUS; dc <= Disease.NEIGHBORHOOD_RADIUS; dc++)
+                    {
+                        if (dr == 0 && dc == 0)
+                        {
+                            continue;
+                        }
+
+                        // bit j becomes the flag of column word * 64 + j + dc
+                        long carry = dc > 0 ? current >>> dc | next << (64 - dc)
+                                   : dc < 0 ? current << -dc | previous >>> (64 + dc)
+                                   : current;
+
+                        long overflow = sum0 & carry;
+                        sum0 ^= carry;
+                        carry = overflow;
+                        overflow = sum1 & carry;
+                        sum1 ^= carry;
+                        carry = overflow;
+                        overflow = sum2 & carry;
+                        sum2 ^= carry;
+                        carry = overflow;
+                        overflow = sum3 & carry;
+                        sum3 ^= carry;
+                        sum4 ^= overflow; // counts stay below 32, so bit 4 never carries
+                    }
+                }
+
+                long exposed = susceptible & (sum0 | sum1 | sum2 | sum3 | sum4);
+                long cellBase = (long) row * cols + ((long) word << 6);
+
+                while (exposed != 0)
+                {
+                    int bit = Long.numberOfTrailingZeros(exposed);
+                    exposed &= exposed - 1;
+
+                    int contagious = (int) (sum0 >>> bit & 1)
+                                     | (int) (sum1 >>> bit & 1) << 1
+                                     | (int) (sum2 >>> bit & 1) << 2
+                                     | (int) (sum3 >>> bit & 1) << 3
+                                     | (int) (sum4 >>> bit & 1) << 4;
+
+                    long cell = cellBase + bit;
+
+                    if (random.uniform(day, cell, CounterRng.INFECTION_PRESSURE) < disease.getExposureProbability(contagious))
+                    {
+                        own.add(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates a pull: word operations for every 64 people, plus a count
+     * read back for each exposed susceptible person, so the pull wins much
+     * earlier than the generic one
+     *
+     * @param population population about to be spread through
+     * @param active people on the stripes' active lists
+     * @param susceptible susceptible people
+     * @return estimated pull cost
+     */
+    @Override
+    public long estimatePullCost(Population population, long active, long susceptible)
+    {
+        long exposed = Math.min(susceptible, active * Disease.NEIGHBORHOOD_SIZE);
+        return (population.size() >>> 6) * Disease.NEIGHBORHOOD_SIZE + exposed;
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Stores population state as bitplanes laid out on the simulation grid.
+ * Each grid row starts on a fresh 64-bit word, so one word holds 64
+ * horizontally adjacent people and neighborhoods can be counted with
+ * word shifts and popcounts instead of one read per neighbor.
+ */
+
+// BitPlaneStore IS-A PopulationStore
+// BitPlaneStore HAS-A status, vaccinated and contagious bitplanes
+public class BitPlaneStore implements PopulationStore
+{
+    /** Number of bitplanes used for the HealthStatus code */
+    public static final int STATUS_BITS = 3;
+
+    private final long size;                    // number of people stored
+    private final int columns;                  // grid columns
+    private final int rows;                     // grid rows
+    private final int wordsPerRow;              // 64-bit words per grid row
+    private final long[][] status;              // bit b of every HealthStatus code
+    private final long[] vaccinated;            // one bit per person
+    private final long[] contagious;            // one bit per person
+
+    /**
+     * Allocates the planes for a population laid out in rows of the given width
+     * Every person starts SUSCEPTIBLE (all status bits zero) and unvaccinated
+     *
+     * @param size number of people
+     * @param columns grid columns
+     */
+    public BitPlaneStore(long size, int columns)
+    {
+        if (size > HeapPopulationStore.MAX_SIZE)
+        {
+            throw new IllegalArgumentException("Bit-packed store cannot hold " + size + " people");
+        }
+
+        this.size = size;
+        this.columns = Math.max(1, columns);
+        this.rows = (int) ((size + this.columns - 1) / this.columns);
+        this.wordsPerRow = (this.columns + 63) >>> 6;
+
+        int words = rows * wordsPerRow;
+        status = new long[STATUS_BITS][words];
+        vaccinated = new long[words];
+        contagious = new long[words];
+    }
+
+    /**
+     * @return number of 64-bit words per grid row
+     */
+    public int getWordsPerRow()
+    {
+        return wordsPerRow;
+    }
+
+    /**
+     * Gets 64 contagious flags of one row, starting at column word * 64
+     * Words outside the grid read as 0, which lets callers shift in
+     * neighbors without bounds checks
+     *
+     * @param row grid row, may be out of range
+     * @param word word within the row, may be out of range
+     * @return contagious bits, bit j for column word * 64 + j
+     */
+    public long getContagiousWord(int row, int word)
+    {
+        if (row < 0 || row >= rows || word < 0 || word >= wordsPerRow)
+        {
+            return 0;
+        }
+        return contagious[row * wordsPerRow + word];
+    }
+
+    /**
+     * Gets 64 susceptible flags of one row, starting at column word * 64
+     * Bits past the last person of the row (or of the population) are 0
+     *
+     * @param row grid row
+     * @param word word within the row
+     * @return susceptible bits, bit j for column word * 64 + j
+     */
+    public long getSusceptibleWord(int row, int word)
+    {
+        int w = row * wordsPerRow + word;
+        return ~(status[0][w] | status[1][w] | status[2][w]) & validMask(row, word);
+    }
+
+    /**
+     * Gets the mask of word positions that hold a person
+     *
+     * @param row grid row
+     * @param word word within the row
+     * @return bit j set when column word * 64 + j exists in this row
+     */
+    private long validMask(int row, int word)
+    {
+        long rowStart = (long) row * columns;
+        long rowWidth = Math.min(columns, size - rowStart);
+        long valid = rowWidth - ((long) word << 6);
+
+        if (valid >= 64)
+        {
+            return -1L;
+        }
+        return valid <= 0 ? 0 : (1L << valid) - 1;
+    }
+
+    /**
+     * Converts a person index to its bit position in a plane
+     *
+     * @param index index of the person
+     * @return bit position, row * wordsPerRow * 64 + column
+     */
+    private long bitOf(long index)
+    {
+        long row = index / columns;
+        return (row * wordsPerRow << 6) + (index - row * columns);
+    }
+
+    @Override
+    public SpreadKernel getSpreadKernel()
+    {
+        return new BitPlaneSpreadKernel(this);
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public byte getStatus(long index)
+    {
+        long bit = bitOf(index);
+        int w = (int) (bit >>> 6);
+        int code = (int) (status[0][w] >>> bit) & 1
+                   | ((int) (status[1][w] >>> bit) & 1) << 1
+                   | ((int) (status[2][w] >>> bit) & 1) << 2;
+        return (byte) code;
+    }
+
+    @Override
+    public void setStatus(long index, byte value)
+    {
+        long bit = bitOf(index);
+        int w = (int) (bit >>> 6);
+        long mask = 1L << bit;
+
+        for (int b = 0; b < STATUS_BITS; b++)
+        {
+            if ((value >> b & 1) != 0)
+            {
+                status[b][w] |= mask;
+            }
+            else
+            {
+                status[b][w] &= ~mask;
+            }
+        }
+    }
+
+    @Override
+    public boolean isVaccinated(long index)
+    {
+        long bit = bitOf(index);
+        return (vaccinated[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void setVaccinated(long index)
+    {
+        long bit = bitOf(index);
+        vaccinated[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    @Override
+    public boolean isContagious(long index)
+    {
+        long bit = bitOf(index);
+        return (contagious[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void setContagious(long index, boolean value)
+    {
+        long bit = bitOf(index);
+
+        if (value)
+        {
+            contagious[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        else
+        {
+            contagious[(int) (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Counts statuses a word at a time: each code is matched against the
+     * three status planes and the matches are popcounted
+     */
+    @Override
+    public void countStatuses(long from, long to, long[] counts)
+    {
+        if (from >= to)
+        {
+            return;
+        }
+
+        int firstRow = (int) (from / columns);
+        int lastRow = (int) ((to - 1) / columns);
+
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            long rowStart = (long) row * columns;
+
+            for (int word = 0; word < wordsPerRow; word++)
+            {
+                long mask = validMask(row, word) & rangeMask(from - rowStart, to - rowStart, word);
+
+                if (mask == 0)
+                {
+                    continue;
+                }
+
+                int w = row * wordsPerRow + word;
+                long s0 = status[0][w];
+                long s1 = status[1][w];
+                long s2 = status[2][w];
+
+                for (int code = 0; code < counts.length; code++)
+                {
+                    long match = mask
+                                 & ((code & 1) != 0 ? s0 : ~s0)
+                                 & ((code & 2) != 0 ? s1 : ~s1)
+                                 & ((code & 4) != 0 ? s2 : ~s2);
+                    counts[code] += Long.bitCount(match);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts eligible people a word at a time: not vaccinated and not DEAD
+     */
+    @Override
+    public long countEligible(long from, long to)
+    {
+        if (from >= to)
+        {
+            return 0;
+        }
+
+        int firstRow = (int) (from / columns);
+        int lastRow = (int) ((to - 1) / columns);
+        int dead = HealthStatus.DEAD.code();
+        long eligible = 0;
+
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            long rowStart = (long) row * columns;
+
+            for (int word = 0; word < wordsPerRow; word++)
+            {
+                long mask = validMask(row, word) & rangeMask(from - rowStart, to - rowStart, word);
+                int w = row * wordsPerRow + word;
+                long deadBits = ((dead & 1) != 0 ? status[0][w] : ~status[0][w])
+                                & ((dead & 2) != 0 ? status[1][w] : ~status[1][w])
+                                & ((dead & 4) != 0 ? status[2][w] : ~status[2][w]);
+
+                eligible += Long.bitCount(mask & ~vaccinated[w] & ~deadBits);
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Gets the mask of word positions whose column lies in [fromCol, toCol)
+     *
+     * @param fromCol first column (inclusive), may be negative
+     * @param toCol last column (exclusive), may be past the row
+     * @param word word within the row
+     * @return bit j set when fromCol <= word * 64 + j < toCol
+     */
+    private static long rangeMask(long fromCol, long toCol, int word)
+    {
+        long base = (long) word << 6;
+        long lo = Math.max(0, Math.min(64, fromCol - base));
+        long hi = Math.max(0, Math.min(64, toCol - base));
+
+        if (hi <= lo)
+        {
+            return 0;
+        }
+        long upper = hi == 64 ? -1L : (1L << hi) - 1;
+        return upper & (-1L << lo);
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents a growable list of cell (person) indices stored as primitive longs.
+ * Used for the simulation's working sets, such as the cells that are currently
+ * infected, so the hot loops avoid boxed collections.
+ */
+
+// CellList IS-A growable primitive list
+// CellList HAS-A long array of cell indices and a size
+public class CellList
+{
+    private long[] cells;   // cell indices, valid up to size
+    private int size;       // number of cells in the list
+
+    /**
+     * Constructs an empty list with a small initial capacity
+     */
+    public CellList()
+    {
+        this(16); // default capacity set here
+    }
+
+    /**
+     * Constructs an empty list with the given initial capacity
+     *
+     * @param capacity initial number of cells that fit without growing
+     */
+    public CellList(int capacity)
+    {
+        cells = new long[Math.max(1, capacity)];
+        size = 0;
+    }
+
+    /**
+     * Appends a cell to the end of the list
+     *
+     * @param cell cell index to add
+     */
+    public void add(long cell)
+    {
+        if (size == cells.length)
+        {
+            cells = Arrays.copyOf(cells, Math.max(size + 1, size + (size >> 1)));
+        }
+
+        cells[size++] = cell;
+    }
+
+    /**
+     * Returns the cell at a position in the list
+     *
+     * @param i position in the list
+     * @return cell index
+     */
+    public long get(int i)
+    {
+        return cells[i];
+    }
+
+    /**
+     * Replaces the cell at a position in the list
+     *
+     * @param i position in the list
+     * @param cell new cell index
+     */
+    public void set(int i, long cell)
+    {
+        cells[i] = cell;
+    }
+
+    /**
+     * Returns the number of cells in the list
+     *
+     * @return list size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Checks if the list is empty
+     *
+     * @return true if the list holds no cells
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Sets the number of cells, growing the capacity if needed
+     * Positions past the old size hold stale values until they are set
+     *
+     * @param newSize number of cells in the list
+     */
+    public void resize(int newSize)
+    {
+        if (newSize > cells.length)
+        {
+            cells = Arrays.copyOf(cells, Math.max(newSize, cells.length + (cells.length >> 1)));
+        }
+        size = Math.max(0, newSize);
+    }
+
+    /**
+     * Drops every cell at or after a position, keeping the capacity
+     *
+     * @param newSize number of leading cells to keep
+     */
+    public void truncate(int newSize)
+    {
+        size = Math.max(0, Math.min(size, newSize));
+    }
+
+    /**
+     * Removes all cells, keeping the capacity for reuse
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+}
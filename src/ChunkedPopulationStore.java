@@ -0,0 +1,424 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Stores population state sparsely, in square chunks of the simulation grid.
+ * A chunk is only allocated the first time one of its people leaves the
+ * default state (SUSCEPTIBLE, unvaccinated, not contagious); people in
+ * chunks that were never touched read as that default. A seeded outbreak
+ * on a huge grid therefore costs memory in proportion to the area it has
+ * reached, and kernels can skip untouched or quiet chunks entirely.
+ * Each chunk keeps a count of its contagious people for that purpose.
+ */
+
+// ChunkedPopulationStore IS-A PopulationStore
+// ChunkedPopulationStore HAS-A table of chunks, each with status codes, flag words and a contagious count
+public class ChunkedPopulationStore implements PopulationStore
+{
+    /** log2 of the chunk edge length */
+    public static final int CHUNK_SHIFT = 6;
+    /** Rows and columns per chunk; stripes are aligned to whole chunk rows */
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final long size;                    // number of people stored
+    private final int columns;                  // grid columns
+    private final int rows;                     // grid rows
+    private final int chunkColumns;             // chunks per chunk row
+    private final int chunkRows;                // chunk rows
+    private final Chunk[] chunks;               // [chunkRow * chunkColumns + chunkColumn], null until touched
+
+    /**
+     * Creates a store where every person is SUSCEPTIBLE and no chunk is allocated
+     *
+     * @param size number of people
+     * @param columns grid columns
+     */
+    public ChunkedPopulationStore(long size, int columns)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Store size must not be negative: " + size);
+        }
+
+        this.size = size;
+        this.columns = Math.max(1, columns);
+        this.rows = (int) ((size + this.columns - 1) / this.columns);
+        this.chunkColumns = (this.columns + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.chunkRows = (rows + CHUNK_MASK) >>> CHUNK_SHIFT;
+
+        long table = (long) chunkColumns * chunkRows;
+
+        if (table > HeapPopulationStore.MAX_SIZE)
+        {
+            throw new IllegalArgumentException("Chunked store cannot hold " + size + " people");
+        }
+        chunks = new Chunk[(int) table];
+    }
+
+    /**
+     * @return chunks per chunk row
+     */
+    public int getChunkColumns()
+    {
+        return chunkColumns;
+    }
+
+    /**
+     * @return number of chunk rows
+     */
+    public int getChunkRows()
+    {
+        return chunkRows;
+    }
+
+    /**
+     * Checks whether anyone in a chunk has left the default state
+     *
+     * @param chunkRow chunk row
+     * @param chunkColumn chunk column
+     * @return true if the chunk is allocated
+     */
+    public boolean isAllocated(int chunkRow, int chunkColumn)
+    {
+        return chunks[chunkRow * chunkColumns + chunkColumn] != null;
+    }
+
+    /**
+     * Checks whether people in a chunk can have a contagious neighbor, that
+     * is whether the chunk or one of the eight around it holds a contagious
+     * person. The neighborhood radius is far below the chunk size, so
+     * contagious people further away cannot reach this chunk.
+     *
+     * @param chunkRow chunk row
+     * @param chunkColumn chunk column
+     * @return true if the chunk must be visited by a pull kernel
+     */
+    public boolean isExposed(int chunkRow, int chunkColumn)
+    {
+        for (int r = Math.max(0, chunkRow - 1); r <= Math.min(chunkRows - 1, chunkRow + 1); r++)
+        {
+            for (int c = Math.max(0, chunkColumn - 1); c <= Math.min(chunkColumns - 1, chunkColumn + 1); c++)
+            {
+                Chunk chunk = chunks[r * chunkColumns + c];
+
+                if (chunk != null && chunk.contagiousCount > 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the allocated chunks, for reporting the outbreak's memory footprint
+     *
+     * @return number of chunks allocated so far
+     */
+    public int getAllocatedChunkCount()
+    {
+        int allocated = 0;
+
+        for (Chunk chunk : chunks)
+        {
+            if (chunk != null)
+            {
+                allocated++;
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Stripes must not share a chunk, so that every chunk is allocated and
+     * written by a single thread
+     */
+    @Override
+    public int getRowAlignment()
+    {
+        return CHUNK_SIZE;
+    }
+
+    @Override
+    public SpreadKernel getSpreadKernel()
+    {
+        return new ChunkedSpreadKernel(this);
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public byte getStatus(long index)
+    {
+        Chunk chunk = chunkOf(index);
+        return chunk == null ? 0 : chunk.status[cellOf(index)];
+    }
+
+    @Override
+    public void setStatus(long index, byte value)
+    {
+        Chunk chunk = chunkOf(index);
+
+        if (chunk == null)
+        {
+            if (value == 0)
+            {
+                return; // already SUSCEPTIBLE
+            }
+            chunk = allocate(index);
+        }
+        chunk.status[cellOf(index)] = value;
+    }
+
+    @Override
+    public boolean isVaccinated(long index)
+    {
+        Chunk chunk = chunkOf(index);
+        return chunk != null && (chunk.vaccinated[rowInChunk(index)] & (1L << columnInChunk(index))) != 0;
+    }
+
+    @Override
+    public void setVaccinated(long index)
+    {
+        Chunk chunk = chunkOf(index);
+
+        if (chunk == null)
+        {
+            chunk = allocate(index);
+        }
+        chunk.vaccinated[rowInChunk(index)] |= 1L << columnInChunk(index);
+    }
+
+    @Override
+    public boolean isContagious(long index)
+    {
+        Chunk chunk = chunkOf(index);
+        return chunk != null && (chunk.contagious[rowInChunk(index)] & (1L << columnInChunk(index))) != 0;
+    }
+
+    @Override
+    public void setContagious(long index, boolean value)
+    {
+        Chunk chunk = chunkOf(index);
+
+        if (chunk == null)
+        {
+            if (!value)
+            {
+                return;
+            }
+            chunk = allocate(index);
+        }
+
+        int row = rowInChunk(index);
+        long bit = 1L << columnInChunk(index);
+        boolean was = (chunk.contagious[row] & bit) != 0;
+
+        if (value && !was)
+        {
+            chunk.contagious[row] |= bit;
+            chunk.contagiousCount++;
+        }
+        else if (!value && was)
+        {
+            chunk.contagious[row] &= ~bit;
+            chunk.contagiousCount--;
+        }
+    }
+
+    /**
+     * Counts statuses by starting everyone as SUSCEPTIBLE and correcting
+     * for the people of allocated chunks only
+     */
+    @Override
+    public void countStatuses(long from, long to, long[] counts)
+    {
+        if (from >= to)
+        {
+            return;
+        }
+
+        counts[HealthStatus.SUSCEPTIBLE.code()] += to - from;
+        forEachAllocatedCell(from, to, (chunk, cell) ->
+        {
+            byte code = chunk.status[cell];
+
+            if (code != 0)
+            {
+                counts[code]++;
+                counts[HealthStatus.SUSCEPTIBLE.code()]--;
+            }
+        });
+    }
+
+    /**
+     * Counts eligible people by starting everyone as eligible and
+     * correcting for the people of allocated chunks only
+     */
+    @Override
+    public long countEligible(long from, long to)
+    {
+        if (from >= to)
+        {
+            return 0;
+        }
+
+        long[] ineligible = new long[1];
+        forEachAllocatedCell(from, to, (chunk, cell) ->
+        {
+            if (chunk.status[cell] == HealthStatus.DEAD.code()
+                || (chunk.vaccinated[cell >>> CHUNK_SHIFT] & (1L << (cell & CHUNK_MASK))) != 0)
+            {
+                ineligible[0]++;
+            }
+        });
+        return to - from - ineligible[0];
+    }
+
+    /**
+     * Moves people to their status chunk by chunk; untouched chunks hold
+     * only SUSCEPTIBLE people, so they are skipped
+     */
+    @Override
+    public void countDensity(DensityGrid grid, int columns)
+    {
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+
+        for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++)
+        {
+            for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++)
+            {
+                Chunk chunk = chunks[chunkRow * chunkColumns + chunkColumn];
+
+                if (chunk == null)
+                {
+                    continue;
+                }
+
+                int lastRow = Math.min(rows, (chunkRow + 1) << CHUNK_SHIFT);
+                int lastColumn = Math.min(this.columns, (chunkColumn + 1) << CHUNK_SHIFT);
+
+                for (int row = chunkRow << CHUNK_SHIFT; row < lastRow; row++)
+                {
+                    for (int column = chunkColumn << CHUNK_SHIFT; column < lastColumn; column++)
+                    {
+                        byte code = chunk.status[(row & CHUNK_MASK) << CHUNK_SHIFT | (column & CHUNK_MASK)];
+
+                        if (code != susceptible)
+                        {
+                            grid.move(row, column, susceptible, code);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every person in [from, to) who lives in an allocated chunk
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param visitor receives the chunk and the cell within it
+     */
+    private void forEachAllocatedCell(long from, long to, CellVisitor visitor)
+    {
+        int firstChunkRow = (int) (from / columns) >>> CHUNK_SHIFT;
+        int lastChunkRow = (int) ((to - 1) / columns) >>> CHUNK_SHIFT;
+
+        for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++)
+        {
+            for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++)
+            {
+                Chunk chunk = chunks[chunkRow * chunkColumns + chunkColumn];
+
+                if (chunk == null)
+                {
+                    continue;
+                }
+
+                int lastRow = Math.min(rows, (chunkRow + 1) << CHUNK_SHIFT);
+                int lastColumn = Math.min(columns, (chunkColumn + 1) << CHUNK_SHIFT);
+
+                for (int row = chunkRow << CHUNK_SHIFT; row < lastRow; row++)
+                {
+                    long rowStart = (long) row * columns;
+
+                    for (int column = chunkColumn << CHUNK_SHIFT; column < lastColumn; column++)
+                    {
+                        long index = rowStart + column;
+
+                        if (index >= from && index < to)
+                        {
+                            visitor.visit(chunk, (row & CHUNK_MASK) << CHUNK_SHIFT | (column & CHUNK_MASK));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocates the chunk holding a person
+     *
+     * @param index index of the person
+     * @return the new chunk
+     */
+    private Chunk allocate(long index)
+    {
+        Chunk chunk = new Chunk();
+        chunks[chunkIndexOf(index)] = chunk;
+        return chunk;
+    }
+
+    private Chunk chunkOf(long index)
+    {
+        return chunks[chunkIndexOf(index)];
+    }
+
+    private int chunkIndexOf(long index)
+    {
+        int row = (int) (index / columns);
+        int column = (int) (index - (long) row * columns);
+        return (row >>> CHUNK_SHIFT) * chunkColumns + (column >>> CHUNK_SHIFT);
+    }
+
+    private int rowInChunk(long index)
+    {
+        return (int) (index / columns) & CHUNK_MASK;
+    }
+
+    private int columnInChunk(long index)
+    {
+        return (int) (index % columns) & CHUNK_MASK;
+    }
+
+    private int cellOf(long index)
+    {
+        return rowInChunk(index) << CHUNK_SHIFT | columnInChunk(index);
+    }
+
+    // Chunk IS-A square block of people
+    private static final class Chunk
+    {
+        final byte[] status = new byte[CHUNK_SIZE * CHUNK_SIZE];   // HealthStatus codes, row-major
+        final long[] vaccinated = new long[CHUNK_SIZE];              // one word per chunk row
+        final long[] contagious = new long[CHUNK_SIZE];              // one word per chunk row
+        int contagiousCount;                                         // contagious flags set in the chunk
+    }
+
+    // CellVisitor IS-A callback for the people of allocated chunks
+    private interface CellVisitor
+    {
+        void visit(Chunk chunk, int cell);
+    }
+}
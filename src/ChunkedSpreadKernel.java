@@ -0,0 +1,107 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Runs the pull scan over a ChunkedPopulationStore. Only chunks with a
+ * contagious person in or next to them are scanned; everyone elsewhere
+ * has no contagious neighbor and cannot be infected. Stripes hold whole
+ * chunk rows, so the chunks scanned are the stripe's own. The scan and
+ * draws are the generic ones, so results are identical; only the order of
+ * the collected people differs (chunk by chunk). Pushes use the generic
+ * scan, which only visits active people anyway.
+ */
+
+// ChunkedSpreadKernel IS-A SpreadKernel
+// ChunkedSpreadKernel HAS-A ChunkedPopulationStore it reads
+public class ChunkedSpreadKernel extends SpreadKernel
+{
+    private final ChunkedPopulationStore store; // sparse store of the population
+
+    /**
+     * Constructs the kernel of a store
+     *
+     * @param store sparse store of the population
+     */
+    public ChunkedSpreadKernel(ChunkedPopulationStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Pulls into the susceptible people of the stripe's exposed chunks
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     */
+    @Override
+    public void pull(Population population, Disease disease, int stripe, CellList own)
+    {
+        int cols = population.getColumnCount();
+        int rows = population.getRowCount();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+        int size = ChunkedPopulationStore.CHUNK_SIZE;
+
+        if (stripeStart >= stripeEnd)
+        {
+            return;
+        }
+
+        int firstChunkRow = (int) (stripeStart / cols) / size;
+        int lastChunkRow = (int) ((stripeEnd - 1) / cols) / size;
+
+        for (int chunkRow = firstChunkRow; chunkRow <= lastChunkRow; chunkRow++)
+        {
+            for (int chunkColumn = 0; chunkColumn < store.getChunkColumns(); chunkColumn++)
+            {
+                if (!store.isExposed(chunkRow, chunkColumn))
+                {
+                    continue;
+                }
+
+                int lastRow = Math.min(rows, (chunkRow + 1) * size);
+                int lastCol = Math.min(cols, (chunkColumn + 1) * size);
+
+                for (int row = chunkRow * size; row < lastRow; row++)
+                {
+                    long rowStart = (long) row * cols;
+
+                    for (int col = chunkColumn * size; col < lastCol; col++)
+                    {
+                        long cell = rowStart + col;
+
+                        if (cell >= stripeStart && cell < stripeEnd
+                            && population.getStatusCode(cell) == susceptible
+                            && disease.catchesByPressure(population, cell, countContagiousAround(population, cell)))
+                        {
+                            own.add(cell);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates a pull: a look at every chunk's neighbors, plus a neighbor
+     * count for the susceptible people of at most nine chunks per active person
+     *
+     * @param population population about to be spread through
+     * @param active people on the stripes' active lists
+     * @param susceptible susceptible people
+     * @return estimated pull cost
+     */
+    @Override
+    public long estimatePullCost(Population population, long active, long susceptible)
+    {
+        long chunkCells = (long) ChunkedPopulationStore.CHUNK_SIZE * ChunkedPopulationStore.CHUNK_SIZE;
+        long scanned = Math.min(susceptible, active * 9 * chunkCells);
+        return population.size() / chunkCells * 9 + scanned * Disease.NEIGHBORHOOD_SIZE;
+    }
+}
@@ -0,0 +1,453 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Moves the oldest rows of a group of LongColumns out of the heap into a
+ * memory-mapped temporary file. Rows leave in blocks of a fixed size; each
+ * column of a block is stored as zigzag deltas in varint bytes, so slowly
+ * changing daily counts take one or two bytes per value. Blocks are
+ * encoded and written on a background thread, and read back on demand one
+ * block at a time. A block must fit one mapped segment, which bounds the
+ * rows per block (see getMaxBlockRows).
+ * Rows leave through two buffers that are reused from block to block, and
+ * are handed to the writer through the spill's monitor, so spilling
+ * allocates nothing on the recording thread; it only waits if the writer
+ * is still busy with both buffers.
+ * Apart from the writer, a spill belongs to the thread that records the
+ * statistics (the simulation thread).
+ */
+
+// ColumnSpill IS-A off-heap archive of column rows
+// ColumnSpill HAS-A temporary file, mapped segments, block index, block buffers and a decoded block cache
+public class ColumnSpill implements AutoCloseable
+{
+    private static final int SEGMENT_BYTES = 16 << 20;   // bytes mapped at a time
+    private static final int MAX_VARINT_BYTES = 10;      // longest varint of a 64-bit value
+
+    // the one "statistics-spill" writer thread shared by every spill, a daemon so it
+    // never keeps the JVM alive; being a single thread keeps writes of one spill in order
+    private static final Object QUEUE = new Object();   // guards the writer and the waiting spills
+    private static Thread writer;                        // started by the first spill
+    private static ColumnSpill waiting;                  // first spill with blocks to write, or null
+
+    private final int columns;                      // columns in the group
+    private final int blockRows;                    // rows per block
+    private final Path path;                        // temporary file
+    private final FileChannel channel;              // channel the segments are mapped from
+    private ColumnSpill nextWaiting;                // next spill with blocks to write, guarded by QUEUE
+    private boolean isWaiting;                      // true if linked from waiting, guarded by QUEUE
+
+    // shared with the writer, guarded by this spill's monitor
+    private final long[][][] buffers;               // two blocks of values, filled in turn
+    private final List<Block> blocks;               // written blocks in row order
+    private int queued;                             // blocks handed to the writer
+    private int written;                            // blocks the writer has stored
+    private boolean rewind;                         // true if the next block maps the file from the start
+
+    // read and written only on the simulation thread
+    private final long[][] cached;                  // decoded values of one block
+    private int cachedBlock;                        // index of the cached block, or -1
+
+    // writer state, only touched on the writer thread
+    private MappedByteBuffer segment;               // segment being filled
+    private int segmentCount;                       // segments mapped so far
+    private int offset;                             // next free byte of the segment
+
+    /**
+     * Creates an empty spill backed by a new temporary file
+     *
+     * @param columns columns in the group
+     * @param blockRows rows moved out at a time, at most getMaxBlockRows(columns)
+     * @throws IOException if the temporary file cannot be created
+     */
+    public ColumnSpill(int columns, int blockRows) throws IOException
+    {
+        if (blockRows < 1 || blockRows > getMaxBlockRows(columns))
+        {
+            throw new IllegalArgumentException("Spill block of " + blockRows + " rows does not fit a segment");
+        }
+
+        this.columns = columns;
+        this.blockRows = blockRows;
+        this.path = Files.createTempFile("statistics", ".spill");
+        path.toFile().deleteOnExit();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffers = new long[2][columns][blockRows];
+        this.blocks = new ArrayList<>();
+        this.cached = new long[columns][blockRows];
+        this.cachedBlock = -1;
+
+        synchronized (QUEUE)
+        {
+            if (writer == null)
+            {
+                writer = new Thread(ColumnSpill::writeWaiting, "statistics-spill");
+                writer.setDaemon(true);
+                writer.start();
+            }
+        }
+    }
+
+    /**
+     * Gets the most rows a block of a group can hold, so that its worst-case
+     * encoding still fits one mapped segment
+     *
+     * @param columns columns in the group
+     * @return largest block size in rows
+     */
+    public static int getMaxBlockRows(int columns)
+    {
+        return SEGMENT_BYTES / (Math.max(1, columns) * MAX_VARINT_BYTES);
+    }
+
+    /**
+     * @return rows moved out at a time
+     */
+    public int getBlockRows()
+    {
+        return blockRows;
+    }
+
+    /**
+     * @return rows held by the spill (written or still queued)
+     */
+    public synchronized int getRows()
+    {
+        return queued * blockRows;
+    }
+
+    /**
+     * Moves the first blockRows values of every column into the spill
+     * The values are copied into a free buffer before returning; encoding
+     * and writing happen in the background
+     *
+     * @param hot columns of the group, each holding at least blockRows values
+     */
+    public void spill(LongColumn... hot)
+    {
+        long[][] values;
+
+        synchronized (this)
+        {
+            awaitWritten(queued - buffers.length + 1); // the writer is done with the buffer
+            values = buffers[queued % buffers.length];
+        }
+
+        for (int c = 0; c < columns; c++)
+        {
+            hot[c].removeFirst(blockRows, values[c]);
+        }
+
+        synchronized (this)
+        {
+            queued++;
+        }
+
+        synchronized (QUEUE)
+        {
+            if (!isWaiting)
+            {
+                isWaiting = true;
+                nextWaiting = waiting;
+                waiting = this;
+                QUEUE.notify();
+            }
+        }
+    }
+
+    /**
+     * Gets one spilled value, decoding its block if it is not cached
+     * Waits if the block is still being written
+     *
+     * @param column column in the group
+     * @param row row index, below getRows()
+     * @return spilled value
+     */
+    public long get(int column, int row)
+    {
+        int block = row / blockRows;
+
+        if (block != cachedBlock)
+        {
+            Block stored;
+
+            synchronized (this)
+            {
+                awaitWritten(block + 1);
+                stored = blocks.get(block);
+            }
+            decode(stored);
+            cachedBlock = block;
+        }
+        return cached[column][row - block * blockRows];
+    }
+
+    /**
+     * Drops every spilled row; the file space is reused
+     */
+    public synchronized void clear()
+    {
+        awaitWritten(queued);
+        blocks.clear();
+        queued = 0;
+        written = 0;
+        rewind = true; // the writer is idle, and maps the file from the start for the next block
+        cachedBlock = -1;
+    }
+
+    /**
+     * Waits for pending writes, then closes and deletes the file
+     */
+    @Override
+    public void close()
+    {
+        clear();
+
+        try
+        {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to remove statistics spill file " + path);
+        }
+    }
+
+    /**
+     * Waits until the writer has stored a number of blocks
+     * Must be called holding this spill's monitor
+     *
+     * @param count blocks that must be written
+     */
+    private void awaitWritten(int count)
+    {
+        try
+        {
+            while (written < count)
+            {
+                wait();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for spilled statistics", e);
+        }
+    }
+
+    // -------------------------
+    // Writer thread
+    // -------------------------
+
+    /**
+     * Body of the writer thread: writes the queued blocks of each spill
+     * that has any, in the order they were handed over
+     */
+    private static void writeWaiting()
+    {
+        while (true)
+        {
+            ColumnSpill spill;
+
+            synchronized (QUEUE)
+            {
+                while (waiting == null)
+                {
+                    try
+                    {
+                        QUEUE.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                }
+
+                spill = waiting;
+                waiting = spill.nextWaiting;
+                spill.nextWaiting = null;
+                spill.isWaiting = false;
+            }
+            spill.writeQueued();
+        }
+    }
+
+    /**
+     * Writes this spill's queued blocks and wakes the simulation thread
+     * after each one. Runs on the writer thread.
+     */
+    private void writeQueued()
+    {
+        while (true)
+        {
+            long[][] values;
+
+            synchronized (this)
+            {
+                if (written == queued)
+                {
+                    return;
+                }
+
+                if (rewind)
+                {
+                    segment = null;
+                    segmentCount = 0;
+                    rewind = false;
+                }
+                values = buffers[written % buffers.length];
+            }
+
+            Block block = write(values);
+
+            synchronized (this)
+            {
+                blocks.add(block);
+                written++;
+                notifyAll();
+            }
+        }
+    }
+
+    // -------------------------
+    // Encoding
+    // -------------------------
+
+    /**
+     * Encodes one block into the current segment, mapping a new segment
+     * when the block might not fit. Runs on the writer thread.
+     * If the file cannot be written a copy of the raw values is kept instead.
+     *
+     * @param values block values by column, in a buffer that is reused
+     * @return where the block was stored
+     */
+    private Block write(long[][] values)
+    {
+        try
+        {
+            int worst = columns * blockRows * MAX_VARINT_BYTES;
+
+            if (segment == null || offset + worst > SEGMENT_BYTES)
+            {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) segmentCount * SEGMENT_BYTES, SEGMENT_BYTES);
+                segmentCount++;
+                offset = 0;
+            }
+
+            int start = offset;
+
+            for (long[] column : values)
+            {
+                long previous = 0;
+
+                for (long value : column)
+                {
+                    long delta = value - previous;
+                    offset = putVarint(segment, offset, (delta << 1) ^ (delta >> 63));
+                    previous = value;
+                }
+            }
+            return new Block(segment, start, null);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to spill statistics, keeping them in memory: " + e.getMessage());
+            long[][] copy = new long[columns][];
+
+            for (int c = 0; c < columns; c++)
+            {
+                copy[c] = values[c].clone();
+            }
+            return new Block(null, 0, copy);
+        }
+    }
+
+    /**
+     * Decodes a block into the cache
+     *
+     * @param block written block
+     */
+    private void decode(Block block)
+    {
+        if (block.values != null)
+        {
+            for (int c = 0; c < columns; c++)
+            {
+                System.arraycopy(block.values[c], 0, cached[c], 0, blockRows);
+            }
+            return;
+        }
+
+        int position = block.offset;
+
+        for (long[] column : cached)
+        {
+            long previous = 0;
+
+            for (int r = 0; r < blockRows; r++)
+            {
+                long zigzag = 0;
+                int shift = 0;
+                byte b;
+
+                do
+                {
+                    b = block.segment.get(position++);
+                    zigzag |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                }
+                while (b < 0);
+
+                previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                column[r] = previous;
+            }
+        }
+    }
+
+    /**
+     * Writes an unsigned varint: 7 bits per byte, high bit set on all but the last
+     *
+     * @param buffer segment to write to
+     * @param position byte to start at
+     * @param value value to write
+     * @return position after the last byte written
+     */
+    private static int putVarint(MappedByteBuffer buffer, int position, long value)
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            buffer.put(position++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(position++, (byte) value);
+        return position;
+    }
+
+    // Block IS-A location of one written block
+    private static final class Block
+    {
+        final MappedByteBuffer segment;     // segment holding the block, or null
+        final int offset;                   // first byte of the block in the segment
+        final long[][] values;              // raw values when the write failed, else null
+
+        Block(MappedByteBuffer segment, int offset, long[][] values)
+        {
+            this.segment = segment;
+            this.offset = offset;
+            this.values = values;
+        }
+    }
+}
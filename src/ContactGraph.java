@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents a contact network (households, workplaces, schools) that the
+ * disease spreads over instead of the grid neighborhood. Node i is the
+ * person with index i. Adjacency is kept in compressed sparse row form:
+ * the contacts of node i are targets[offsets[i]] up to targets[offsets[i + 1]],
+ * so a node's contacts are one contiguous slice of a single int array.
+ * Graphs are loaded from a binary edge list, read through memory mapping
+ * so that files of tens of millions of edges are never copied onto the heap
+ * as a whole. The file holds one record per edge, two little-endian 32-bit
+ * node numbers (source, target), with no header.
+ */
+
+// ContactGraph IS-A immutable contact network in CSR form
+// ContactGraph HAS-A offset array and target array
+public class ContactGraph
+{
+    private static final int RECORD_BYTES = 8;                  // two int32 node numbers per edge
+    private static final long MAP_BYTES = 1L << 30;             // bytes mapped at a time (a multiple of RECORD_BYTES)
+
+    private final int[] offsets;    // [node] first edge of the node, [nodeCount] edge count
+    private final int[] targets;    // [edge] contact at the other end of the edge
+
+    /**
+     * Wraps existing CSR arrays
+     *
+     * @param offsets first edge of every node, followed by the edge count
+     * @param targets contact at the other end of every edge
+     */
+    public ContactGraph(int[] offsets, int[] targets)
+    {
+        if (offsets.length == 0 || offsets[offsets.length - 1] != targets.length)
+        {
+            throw new IllegalArgumentException("Offsets do not match " + targets.length + " edges");
+        }
+
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Loads a graph from a binary edge-list file
+     * The file is read three times through the mapping: for the node count,
+     * for the degrees and to place the targets. Self-contacts are dropped.
+     *
+     * @param file edge-list file of (source, target) int32 pairs
+     * @param undirected true to add every edge in both directions
+     * @return the loaded graph
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static ContactGraph load(Path file, boolean undirected) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long bytes = channel.size();
+
+            if (bytes % RECORD_BYTES != 0)
+            {
+                throw new IOException("Edge list " + file + " is not a whole number of records");
+            }
+
+            // pass 1: node count
+            int maxNode = -1;
+            long edges = 0;
+
+            for (long position = 0; position < bytes; position += MAP_BYTES)
+            {
+                IntBuffer records = map(channel, position, bytes);
+
+                while (records.hasRemaining())
+                {
+                    int source = records.get();
+                    int target = records.get();
+
+                    if (source < 0 || target < 0)
+                    {
+                        throw new IOException("Negative node number in " + file);
+                    }
+
+                    maxNode = Math.max(maxNode, Math.max(source, target));
+
+                    if (source != target)
+                    {
+                        edges += undirected ? 2 : 1;
+                    }
+                }
+            }
+
+            if (edges > HeapPopulationStore.MAX_SIZE || maxNode == Integer.MAX_VALUE)
+            {
+                throw new IOException("Edge list " + file + " is too large for a CSR graph");
+            }
+
+            // pass 2: degrees, turned into offsets
+            int[] offsets = new int[maxNode + 2];
+
+            for (long position = 0; position < bytes; position += MAP_BYTES)
+            {
+                IntBuffer records = map(channel, position, bytes);
+
+                while (records.hasRemaining())
+                {
+                    int source = records.get();
+                    int target = records.get();
+
+                    if (source != target)
+                    {
+                        offsets[source + 1]++;
+
+                        if (undirected)
+                        {
+                            offsets[target + 1]++;
+                        }
+                    }
+                }
+            }
+
+            for (int node = 0; node <= maxNode; node++)
+            {
+                offsets[node + 1] += offsets[node];
+            }
+
+            // pass 3: targets, placed through a moving cursor per node
+            int[] targets = new int[(int) edges];
+            int[] cursor = new int[maxNode + 1];
+            System.arraycopy(offsets, 0, cursor, 0, cursor.length);
+
+            for (long position = 0; position < bytes; position += MAP_BYTES)
+            {
+                IntBuffer records = map(channel, position, bytes);
+
+                while (records.hasRemaining())
+                {
+                    int source = records.get();
+                    int target = records.get();
+
+                    if (source != target)
+                    {
+                        targets[cursor[source]++] = target;
+
+                        if (undirected)
+                        {
+                            targets[cursor[target]++] = source;
+                        }
+                    }
+                }
+            }
+
+            return new ContactGraph(offsets, targets);
+        }
+    }
+
+    /**
+     * Maps one window of the edge-list file as ints
+     *
+     * @param channel open file
+     * @param position first byte of the window
+     * @param bytes file size
+     * @return the window's int32 values
+     * @throws IOException if the file cannot be mapped
+     */
+    private static IntBuffer map(FileChannel channel, long position, long bytes) throws IOException
+    {
+        long length = Math.min(MAP_BYTES, bytes - position);
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                      .order(ByteOrder.LITTLE_ENDIAN)
+                      .asIntBuffer();
+    }
+
+    /**
+     * @return number of nodes, which is the population size the graph needs
+     */
+    public int getNodeCount()
+    {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return number of directed edges
+     */
+    public int getEdgeCount()
+    {
+        return targets.length;
+    }
+
+    /**
+     * Gets the first edge of a node's adjacency slice
+     *
+     * @param node node number
+     * @return index of the node's first edge
+     */
+    public int edgesStart(int node)
+    {
+        return offsets[node];
+    }
+
+    /**
+     * Gets the end of a node's adjacency slice
+     *
+     * @param node node number
+     * @return index after the node's last edge
+     */
+    public int edgesEnd(int node)
+    {
+        return offsets[node + 1];
+    }
+
+    /**
+     * Gets the contact at the other end of an edge
+     *
+     * @param edge edge index
+     * @return target node
+     */
+    public int getTarget(int edge)
+    {
+        return targets[edge];
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.Serializable;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Describes who a person is in contact with and how much each contact
+ * counts: a square of the given radius around the person, weighted by a
+ * KernelShape. Weights are separable, the weight of an offset (dr, dc) is
+ * getWeight(dr) * getWeight(dc), so infection pressure can be built with one
+ * pass down the columns and one along the rows instead of a visit of every
+ * offset. The default kernel is the 5x5 box the spread kernels are built for.
+ */
+
+// ContactKernel IS-A immutable contact neighborhood setting
+// ContactKernel HAS-A shape, radius and one-dimensional weights
+public final class ContactKernel implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    /** Largest supported radius */
+    public static final int MAX_RADIUS = 100;
+
+    /** The NEIGHBORHOOD_RADIUS box every person has used so far */
+    public static final ContactKernel DEFAULT = new ContactKernel(KernelShape.BOX, Disease.NEIGHBORHOOD_RADIUS);
+
+    private final KernelShape shape;    // how contacts are weighted by distance
+    private final int radius;           // contact distance in rows and columns
+    private final double[] weights;     // weight by offset, index offset + radius
+
+    /**
+     * Creates a kernel
+     *
+     * @param shape how contacts are weighted by distance
+     * @param radius contact distance in rows and columns (1..MAX_RADIUS)
+     */
+    public ContactKernel(KernelShape shape, int radius)
+    {
+        if (shape == null || radius < 1 || radius > MAX_RADIUS)
+        {
+            throw new IllegalArgumentException("Invalid contact kernel: " + shape + " radius " + radius);
+        }
+
+        this.shape = shape;
+        this.radius = radius;
+        this.weights = new double[2 * radius + 1];
+
+        double sigma = Math.max(1.0, radius / 2.0); // the radius covers two standard deviations
+
+        for (int d = -radius; d <= radius; d++)
+        {
+            weights[d + radius] = shape == KernelShape.BOX ? 1.0 : Math.exp(-(d * d) / (2 * sigma * sigma));
+        }
+    }
+
+    /**
+     * @return how contacts are weighted by distance
+     */
+    public KernelShape getShape()
+    {
+        return shape;
+    }
+
+    /**
+     * @return contact distance in rows and columns
+     */
+    public int getRadius()
+    {
+        return radius;
+    }
+
+    /**
+     * Gets the weight of a row or column offset
+     *
+     * @param offset offset from the person (-radius..radius)
+     * @return weight of the offset (0..1, 1 at offset 0)
+     */
+    public double getWeight(int offset)
+    {
+        return weights[offset + radius];
+    }
+
+    /**
+     * @return number of contacts around a person, the person excluded
+     */
+    public int getNeighborCount()
+    {
+        return (2 * radius + 1) * (2 * radius + 1) - 1;
+    }
+
+    /**
+     * Checks whether this is the default kernel, which the push, bit-packed
+     * and padded spread kernels implement directly
+     *
+     * @return true for a BOX of NEIGHBORHOOD_RADIUS
+     */
+    public boolean isDefault()
+    {
+        return shape == KernelShape.BOX && radius == Disease.NEIGHBORHOOD_RADIUS;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other instanceof ContactKernel
+               && ((ContactKernel) other).shape == shape
+               && ((ContactKernel) other).radius == radius;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return shape.hashCode() * 31 + radius;
+    }
+
+    @Override
+    public String toString()
+    {
+        return shape + " r=" + radius;
+    }
+}
@@ -16,9 +16,13 @@ import java.awt.event.ActionEvent;
  * Provides a control panel for the simulation.
  * Allows starting, pausing, resetting, and returning to setup.
  * Displays current day and statistics for all health states.
+ * Days are stepped by a SimulationRunner on its own thread at the chosen
+ * speed; a timer running at the display refresh rate takes the runner's
+ * latest snapshot and repaints, so the UI stays responsive however long a
+ * day takes, and the repaint rate does not limit the simulation speed.
  */
 
-// ControlPanel HAS-A SimulationPanel, Controller, Statistics
+// ControlPanel HAS-A SimulationPanel, Controller, SimulationRunner, speed selector
 // ControlPanel IS-A JPanel (UI component)
 public class ControlPanel extends JPanel
 {
@@ -42,13 +46,20 @@ public class ControlPanel extends JPanel
     private final JLabel recoveringLabel;       // recovering count label
     private final JLabel safeLabel;             // safe count label
     private final JLabel deadLabel;             // dead count label
+    private final JLabel spreadLabel;           // spread kernel and time label
+    private final JComboBox<String> speedBox;   // days per second, or as fast as possible
+    private final JCheckBox mixBox;             // mix colors of people drawn together on one pixel
 
     private final SimulationPanel simulationPanel;
     private final Controller controller;
-    private final Statistics statistics;
     private final ControlPanelListener listener;
 
-    private Timer timer;                        // timer for automatic simulation stepping
+    private static final String[] SPEED_NAMES = { "1 day/s", "3 days/s", "10 days/s", "30 days/s", "As fast as possible" };
+    private static final double[] SPEEDS = { 1, 3, 10, 30, SimulationRunner.AS_FAST_AS_POSSIBLE };
+    private static final int DEFAULT_SPEED = 1;  // about one day every 300 ms
+
+    private Timer timer;                        // repaint timer, at the display refresh rate
+    private SimulationRunner runner;            // runs the days on its own thread, or null
     private boolean paused;                     // simulation paused flag
 
     /**
@@ -63,10 +74,9 @@ public class ControlPanel extends JPanel
     {
         this.simulationPanel = simulationPanel;
         this.controller = controller;
-        this.statistics = new Statistics();     // initialize stats
         this.listener = listener;
 
-        setLayout(new GridLayout(10, 1, 5, 5));
+        setLayout(new GridLayout(13, 1, 5, 5));
 
         startButton = new JButton("Start Simulation");
         pauseButton = new JButton("Resume");   // initially paused
@@ -79,21 +89,31 @@ public class ControlPanel extends JPanel
         recoveringLabel = new JLabel("Recovering: 0", SwingConstants.CENTER);
         safeLabel = new JLabel("Safe: 0", SwingConstants.CENTER);
         deadLabel = new JLabel("Dead: 0", SwingConstants.CENTER);
+        spreadLabel = new JLabel("Spread: -", SwingConstants.CENTER);
+        speedBox = new JComboBox<>(SPEED_NAMES);
+        speedBox.setSelectedIndex(DEFAULT_SPEED);
+        mixBox = new JCheckBox("Mix colors when zoomed out", true);
+        mixBox.setHorizontalAlignment(SwingConstants.CENTER);
 
         startButton.addActionListener(this::startSimulation);
         resetButton.addActionListener(this::resetSimulation);
         pauseButton.addActionListener(this::togglePause);
         backButton.addActionListener(this::backToSetup);
+        speedBox.addActionListener(this::changeSpeed);
+        mixBox.addActionListener(e -> simulationPanel.setMixDensityColors(mixBox.isSelected()));
 
         add(startButton);
         add(pauseButton);
         add(resetButton);
+        add(speedBox);
+        add(mixBox);
         add(dayLabel);
         add(susceptibleLabel);
         add(infectedLabel);
         add(recoveringLabel);
         add(safeLabel);
         add(deadLabel);
+        add(spreadLabel);
         add(backButton);
 
         paused = true; // simulation starts paused
@@ -101,47 +121,99 @@ public class ControlPanel extends JPanel
     }
 
     /**
-     * Starts the simulation timer and begins stepping through days
+     * Starts the simulation thread and the repaint timer
      * 
      * @param e ActionEvent from start button
      */
     private void startSimulation(ActionEvent e)
     {
-        if (timer == null)
+        if (runner == null)
         {
-            controller.start();
-            statistics.reset(); // clear previous stats
+            controller.start(); // also clears previous stats
 
-            timer = new Timer(300, evt ->
-            {
-                if (!paused)
-                {
-                    boolean cont = controller.step(); // perform one simulation step
-                    simulationPanel.setPopulationAndDisease(controller.getPopulation(), controller.getDisease());
-                    simulationPanel.repaint();
-
-                    statistics.recordDay(controller.getPopulation()); // update stats
-                    dayLabel.setText("Day: " + controller.getCurrentDay() + " / " + controller.getMaxDays());
-                    updateStats();
-
-                    if (!cont)
-                    {
-                        timer.stop();
-                        startButton.setEnabled(true);
-                        paused = true;
-                        pauseButton.setText("Resume");
-                    }
-                }
-            });
+            runner = new SimulationRunner(controller, SPEEDS[speedBox.getSelectedIndex()]);
+            simulationPanel.setPopulationAndDisease(controller.getPopulation(), controller.getDisease());
+            simulationPanel.setRunner(runner);
 
+            timer = new Timer(refreshDelay(), evt -> showLatestSnapshot());
             timer.start();
         }
 
         paused = false;
+        runner.setPaused(false);
         pauseButton.setText("Pause");
         startButton.setEnabled(false);
     }
 
+    /**
+     * Shows the runner's newest snapshot, if there is one, and asks for
+     * the next; runs on every display refresh
+     */
+    private void showLatestSnapshot()
+    {
+        if (runner == null)
+        {
+            return;
+        }
+
+        PopulationSnapshot snapshot = runner.takeSnapshot();
+
+        if (snapshot != null)
+        {
+            simulationPanel.setSnapshot(snapshot);
+            dayLabel.setText("Day: " + snapshot.getDay() + " / " + snapshot.getMaxDays());
+            showStats(snapshot.getSusceptible(), snapshot.getInfected(), snapshot.getRecovering(),
+                      snapshot.getSafe(), snapshot.getDeaths(), snapshot.getSpreadMode(), snapshot.getSpreadNanos());
+
+            if (snapshot.isFinished())
+            {
+                stopRunner(); // the panel goes back to painting the population itself
+                startButton.setEnabled(true);
+                paused = true;
+                pauseButton.setText("Resume");
+                return;
+            }
+        }
+
+        Throwable failure = runner.getFailure();
+
+        if (failure != null)
+        {
+            showFailure(failure);
+            return;
+        }
+
+        if (!paused)
+        {
+            runner.requestSnapshot();
+        }
+    }
+
+    /**
+     * Stops a runner whose simulation thread failed and reports the error
+     * The day it failed on may be half done, so only Reset can go on
+     *
+     * @param failure error that ended the simulation thread
+     */
+    private void showFailure(Throwable failure)
+    {
+        stopRunner();
+        paused = true;
+        pauseButton.setText("Resume");
+        startButton.setEnabled(false);
+
+        String message = failure instanceof OutOfMemoryError
+            ? "The simulation ran out of memory. Reset it, or go back to setup and choose a smaller population."
+            : "The simulation stopped: " + failure;
+
+        JOptionPane.showMessageDialog(
+            this,
+            message,
+            "Simulation Error",
+            JOptionPane.ERROR_MESSAGE
+        );
+    }
+
     /**
      * Toggles the pause state of the simulation
      * 
@@ -151,14 +223,32 @@ public class ControlPanel extends JPanel
     {
         paused = !paused;
         pauseButton.setText(paused ? "Resume" : "Pause");
+
+        if (runner != null)
+        {
+            runner.setPaused(paused);
+            runner.requestSnapshot(); // show the day it stopped on
+        }
     }
 
     /**
-     * Resets the simulation to the initial configuration
+     * Applies the selected simulation speed
      * 
-     * @param e ActionEvent from reset button
+     * @param e ActionEvent from the speed selector
      */
-    private void resetSimulation(ActionEvent e)
+    private void changeSpeed(ActionEvent e)
+    {
+        if (runner != null)
+        {
+            runner.setDaysPerSecond(SPEEDS[speedBox.getSelectedIndex()]);
+        }
+    }
+
+    /**
+     * Stops the repaint timer and the simulation thread, if running
+     * Afterwards the controller may be used on the Swing thread again
+     */
+    private void stopRunner()
     {
         if (timer != null)
         {
@@ -166,14 +256,46 @@ public class ControlPanel extends JPanel
             timer = null;
         }
 
+        if (runner != null)
+        {
+            runner.stop();
+            runner = null;
+            simulationPanel.setRunner(null);
+        }
+    }
+
+    /**
+     * Computes the repaint interval from the display's refresh rate
+     * 
+     * @return milliseconds between repaints
+     */
+    private static int refreshDelay()
+    {
+        int hertz = DisplayMode.REFRESH_RATE_UNKNOWN;
+
+        if (!GraphicsEnvironment.isHeadless())
+        {
+            hertz = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                                       .getDisplayMode().getRefreshRate();
+        }
+        return hertz > 0 ? Math.max(1, 1000 / hertz) : 16; // 60 Hz if unknown
+    }
+
+    /**
+     * Resets the simulation to the initial configuration
+     * 
+     * @param e ActionEvent from reset button
+     */
+    private void resetSimulation(ActionEvent e)
+    {
+        stopRunner();
+
         SimulationConfig config = controller.getConfig();
         if (config != null)
         {
             controller.applyConfig(config);
         }
 
-        statistics.reset(); // clear stats
-
         simulationPanel.setPopulationAndDisease(controller.getPopulation(), controller.getDisease());
         simulationPanel.setInteractiveSetup(true);
         simulationPanel.repaint();
@@ -193,11 +315,7 @@ public class ControlPanel extends JPanel
      */
     private void backToSetup(ActionEvent e)
     {
-        if (timer != null)
-        {
-            timer.stop();
-            timer = null;
-        }
+        stopRunner();
 
         paused = true;
         pauseButton.setText("Resume");
@@ -211,13 +329,37 @@ public class ControlPanel extends JPanel
 
     /**
      * Updates the statistics labels to display current values
+     * Only called while no runner is stepping the controller
      */
     private void updateStats()
     {
-        susceptibleLabel.setText("Susceptible: " + statistics.getLatestSusceptible());
-        infectedLabel.setText("Infected: " + statistics.getLatestInfected());
-        recoveringLabel.setText("Recovering: " + statistics.getLatestRecovering());
-        safeLabel.setText("Safe: " + statistics.getLatestSafe());
-        deadLabel.setText("Dead: " + statistics.getLatestDeaths());
+        // the controller records every day's counts, so no extra pass is needed here
+        Statistics statistics = controller.getStatistics();
+        showStats(statistics.getLatestSusceptible(), statistics.getLatestInfected(), statistics.getLatestRecovering(),
+                  statistics.getLatestSafe(), statistics.getLatestDeaths(),
+                  statistics.getLatestSpreadMode(), statistics.getLatestSpreadNanos());
+    }
+
+    /**
+     * Displays one day's statistics in the labels
+     * 
+     * @param susceptible susceptible count
+     * @param infected infected count
+     * @param recovering recovering count
+     * @param safe safe count
+     * @param deaths death count
+     * @param mode spread kernel used, or null before the first day
+     * @param spreadNanos spread time in nanoseconds
+     */
+    private void showStats(long susceptible, long infected, long recovering, long safe, long deaths,
+                           SpreadMode mode, long spreadNanos)
+    {
+        susceptibleLabel.setText("Susceptible: " + susceptible);
+        infectedLabel.setText("Infected: " + infected);
+        recoveringLabel.setText("Recovering: " + recovering);
+        safeLabel.setText("Safe: " + safe);
+        deadLabel.setText("Dead: " + deaths);
+        spreadLabel.setText(mode == null ? "Spread: -"
+            : String.format("Spread: %s (%.1f ms)", mode, spreadNanos / 1e6));
     }
 }
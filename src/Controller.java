@@ -1,7 +1,3 @@
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Lead Author(s):
  * @author Joseph Roberts
@@ -15,13 +11,15 @@ import java.util.stream.Collectors;
  * Responsibilities of class:
  * Controls the simulation using a SimulationConfig.
  * Advances the simulation day-by-day, applying disease spread, vaccination, and updating statistics.
+ * The per-day disease phases are run by a SimulationEngine.
  */
 
-// Controller HAS-A SimulationConfig, Statistics
+// Controller HAS-A SimulationConfig, SimulationEngine, Statistics
 // Controller tracks the current day of the simulation
 public class Controller
 {
     private SimulationConfig config;    // simulation parameters and objects
+    private SimulationEngine engine;    // runs the per-day phases over population stripes
     private Statistics statistics;      // collects daily simulation stats
     private int currentDay;             // current day in simulation
 
@@ -44,11 +42,22 @@ public class Controller
     public void applyConfig(SimulationConfig config)
     {
         this.config = config;
-        this.statistics = new Statistics(); // reset statistics
+        statistics.close(); // drop the spill files of the previous run
+        this.statistics = new Statistics(config.statisticsCapacity, config.statisticsHotDays); // reset statistics
         this.currentDay = 0;
 
-        // recreate population to reset all people
-        config.getPopulation().setSize(config.getPopulation().size());
+        // recreate population to reset all people; a contact graph has one person per node
+        config.getPopulation().setSize(config.contactGraph != null ? config.contactGraph.getNodeCount()
+                                                                   : config.getPopulation().size());
+        config.getPopulation().setRandom(new CounterRng(config.seed));
+        config.getPopulation().setDay(0);
+
+        if (engine != null)
+        {
+            engine.shutdown();
+        }
+        engine = new SimulationEngine(config.parallelism);
+        engine.prepare(config.getPopulation());
     }
 
     /**
@@ -101,6 +110,16 @@ public class Controller
         return statistics;
     }
 
+    /**
+     * Returns the per-phase results of the most recent day
+     * 
+     * @return DayReport of the last step, or null before the first config
+     */
+    public DayReport getLastReport()
+    {
+        return engine == null ? null : engine.getReport();
+    }
+
     /**
      * Returns the current day of the simulation
      * 
@@ -147,96 +166,79 @@ public class Controller
             return false;
         }
 
+        long allocatedBefore = config.measureAllocations ? engine.allocatedBytes() : 0;
         Vaccination vacc = config.getVaccination();
+        Population pop = config.getPopulation();
+        pop.setDay(currentDay);
+        boolean vaccinateToday = config.vaccinationEnabled && vacc != null && currentDay >= vacc.getStartDay()
+                                 && (vacc.getDailyMax() > 0 || vacc.getDailyMin() > 0);
+        DayReport report;
 
-        // Vaccination
-        if (config.vaccinationEnabled && vacc != null && currentDay >= vacc.getStartDay() && (vacc.getDailyMax() > 0 || vacc.getDailyMin() > 0))
+        if (config.fusedStep && config.contactGraph == null)
         {
-            distributeVaccinesDaily();
+            // Vaccination, spread and infection in one pass per stripe, then the daily update
+            report = engine.stepFused(pop, config.getDisease(), vaccinateToday ? vacc : null);
         }
+        else
+        {
+            engine.beginDay(currentDay);
 
-        // Spread disease
-        config.getDisease().spread(config.getPopulation());
-
-        // Update people daily (mortality, recovery, contagious)
-        updatePeopleDaily();
+            // Vaccination
+            if (vaccinateToday)
+            {
+                engine.getReport().addVaccinated(distributeVaccinesDaily());
+            }
 
-        // Record statistics for the current day
-        statistics.recordDay(config.getPopulation());
+            // Spread disease, over the contact graph if there is one
+            if (config.contactGraph != null)
+            {
+                engine.spread(pop, config.getDisease(), config.contactGraph);
+            }
+            else
+            {
+                engine.spread(pop, config.getDisease(), config.spreadMode);
+            }
 
-        currentDay++;
-        return currentDay < config.maxDays;
-    }
+            // Apply the transitions due today (contagious, recovered, dead)
+            engine.updatePeople(pop);
 
-    /**
-     * Updates all people: apply mortality, progress infections, and recoveries.
-     */
-    private void updatePeopleDaily()
-    {
-        Population pop = config.getPopulation();
-        Disease disease = config.getDisease();
-        double mortality = disease.getMortalityRate(); // daily death probability
+            report = engine.finishDay(pop);
+        }
 
-        for (Person p : pop.getPeople())
+        if (config.verifyCounts)
         {
-            if (p.getHealthStatus() == HealthStatus.DEAD)
-                continue;
+            engine.verifyCounts(pop); // throws IllegalStateException on a miscount
+        }
 
-            // Mortality for infected individuals
-            if (p.isInfected() && Math.random() < mortality)
-            {
-                p.setDead();
-                continue; // skip further daily progression
-            }
+        // Record statistics for the current day
+        statistics.recordSpread(report.getSpreadMode(), report.getSpreadNanos());
+        statistics.recordDay(report);
 
-            // Daily progression (infected → contagious → recovered)
-            p.progressDay(disease);
+        if (config.measureAllocations)
+        {
+            long allocatedAfter = engine.allocatedBytes();
+            report.setAllocatedBytes(allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
         }
+
+        currentDay++;
+        return currentDay < config.maxDays;
     }
 
     /**
      * Distributes vaccines to eligible people based on daily min/max percentages.
+     * 
+     * @return number of doses given
      */
-    private void distributeVaccinesDaily()
+    private long distributeVaccinesDaily()
     {
         Vaccination vacc = config.getVaccination();
         Population pop = config.getPopulation();
 
         if (currentDay < vacc.getStartDay())
-            return;
+            return 0;
 
-        List<Person> people = pop.getPeople();
-
-        // Filter eligible people: not dead and not vaccinated
-        List<Person> eligible = people.stream()
-                .filter(p -> p.getHealthStatus() != HealthStatus.DEAD && !p.isVaccinated())
-                .collect(Collectors.toList());
-
-        if (eligible.isEmpty())
-            return;
-
-        float dailyMin = vacc.getDailyMin();
-        float dailyMax = vacc.getDailyMax();
-
-        // pick random percent between min and max
-        float dailyPercent = dailyMin + (float) (Math.random() * (dailyMax - dailyMin));
-
-        // number to vaccinate based on eligible population
-        int numToVaccinate = Math.round(eligible.size() * dailyPercent);
-
-        // ensure at least 1 if eligible but percent rounds to 0
-        if (numToVaccinate == 0 && !eligible.isEmpty())
-        {
-            numToVaccinate = 1;
-        }
-
-        // shuffle and vaccinate
-        Collections.shuffle(eligible);
-
-        for (int i = 0; i < numToVaccinate; i++)
-        {
-            vacc.applyTo(eligible.get(i));
-        }
+        // doses are drawn from the eligible index, no pass over the population
+        return vacc.vaccinateSample(pop, currentDay);
     }
 
     /**
@@ -245,5 +247,6 @@ public class Controller
     public void start()
     {
         currentDay = 0;
+        statistics.reset();
     }
 }
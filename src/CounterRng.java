@@ -0,0 +1,107 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Provides seedable, counter-based random numbers for the simulation.
+ * Every draw is a pure function of (seed, day, cell, purpose), computed with a
+ * few integer mixing rounds (SplitMix64 finalizer). There is no shared mutable
+ * state, so threads never contend, and a run gives the same results no matter
+ * how many threads it uses or in which order the cells are visited.
+ */
+
+// CounterRng IS-A stateless random number source keyed by counters
+// CounterRng HAS-A seed
+public final class CounterRng
+{
+    // Purposes: one independent stream per kind of random decision
+    public static final int RECOVERY_DAYS = 1;      // recovery duration at infection
+    public static final int CONTAGIOUS_DAYS = 2;    // contagious duration at infection
+    public static final int MORTALITY = 3;          // day of death, drawn at infection
+    public static final int VACCINE_PERCENT = 4;    // daily vaccination percentage
+    public static final int VACCINE_PICK = 5;       // choice of people to vaccinate
+    public static final int INFECTION_PRESSURE = 6; // single infection draw from all contagious neighbors
+    public static final int CONTACT_EDGE = 7;       // contact along one edge of a contact graph (keyed by edge)
+    public static final int INFECTION = 1024;       // + direction of the contact (source relative to target)
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // SplitMix64 increment
+
+    private final long seed;   // run seed
+
+    /**
+     * Constructs a generator for the given seed
+     *
+     * @param seed run seed
+     */
+    public CounterRng(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the seed of this generator
+     *
+     * @return run seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Returns 64 random bits for a (day, cell, purpose) key
+     *
+     * @param day simulation day
+     * @param cell index of the person (or any other counter)
+     * @param purpose kind of decision being made
+     * @return random bits
+     */
+    public long bits(int day, long cell, int purpose)
+    {
+        long h = mix(seed + GOLDEN_GAMMA * (day + 1L));
+        h = mix(h ^ (cell * GOLDEN_GAMMA));
+        return mix(h + purpose);
+    }
+
+    /**
+     * Returns a uniform double in [0, 1) for a (day, cell, purpose) key
+     *
+     * @param day simulation day
+     * @param cell index of the person
+     * @param purpose kind of decision being made
+     * @return uniform random number
+     */
+    public double uniform(int day, long cell, int purpose)
+    {
+        return (bits(day, cell, purpose) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Returns a uniform int in [0, bound) for a (day, cell, purpose) key
+     *
+     * @param day simulation day
+     * @param cell index of the person
+     * @param purpose kind of decision being made
+     * @param bound exclusive upper bound (positive)
+     * @return uniform random int
+     */
+    public int uniformInt(int day, long cell, int purpose, int bound)
+    {
+        return (int) (((bits(day, cell, purpose) >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * SplitMix64 finalizer: scrambles all 64 bits of the input
+     *
+     * @param z value to mix
+     * @return mixed value
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,228 @@
+import java.util.Arrays;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Holds the results of each phase of one simulation day: doses given,
+ * new infections, transitions, the end-of-day status counts, how the
+ * disease was spread and, when measured, how much the step allocated.
+ * The engine keeps one report per stripe while a day runs and adds them
+ * up at the end, so fused and phase-by-phase steps expose the same results.
+ */
+
+// DayReport IS-A record of one simulation day
+// DayReport HAS-A status counts, phase totals, spread mode and spread time
+public class DayReport
+{
+    private int day;                    // simulation day the report belongs to
+    private final long[] counts;        // people per HealthStatus code at the end of the day
+    private long eligible;              // people alive and unvaccinated at the end of the day
+    private long vaccinated;            // doses given today
+    private long infections;            // people infected today
+    private long becameContagious;      // INFECTED -> CONTAGIOUS transitions today
+    private long recoveries;            // CONTAGIOUS -> RECOVERED transitions today
+    private long deaths;                // deaths today
+    private SpreadMode spreadMode;      // kernel used for today's spread
+    private long spreadNanos;           // time spent spreading
+    private boolean fused;              // true if the day ran as one fused pass
+    private long allocatedBytes;        // heap bytes allocated by the step, or -1 if not measured
+
+    /**
+     * Constructs an empty report
+     */
+    public DayReport()
+    {
+        counts = new long[HealthStatus.values().length];
+        clear(0);
+    }
+
+    /**
+     * Resets every total so the report can be reused for another day
+     *
+     * @param day simulation day of the new report
+     */
+    void clear(int day)
+    {
+        this.day = day;
+        Arrays.fill(counts, 0);
+        eligible = 0;
+        vaccinated = 0;
+        infections = 0;
+        becameContagious = 0;
+        recoveries = 0;
+        deaths = 0;
+        spreadMode = null;
+        spreadNanos = 0;
+        fused = false;
+        allocatedBytes = -1;
+    }
+
+    /**
+     * Adds the phase totals of a stripe's report to this report
+     * End-of-day counts are not added; they are set with setCounts
+     *
+     * @param other report of one stripe
+     */
+    void add(DayReport other)
+    {
+        vaccinated += other.vaccinated;
+        infections += other.infections;
+        becameContagious += other.becameContagious;
+        recoveries += other.recoveries;
+        deaths += other.deaths;
+    }
+
+    // -------------------------
+    // Phase updates
+    // -------------------------
+
+    /**
+     * Records a scheduled transition in the phase totals
+     *
+     * @param to status the person moved to
+     */
+    void recordTransition(HealthStatus to)
+    {
+        switch (to)
+        {
+            case CONTAGIOUS -> becameContagious++;
+            case RECOVERED -> recoveries++;
+            case DEAD -> deaths++;
+            default -> { }
+        }
+    }
+
+    /**
+     * Sets the end-of-day totals
+     *
+     * @param totals people per HealthStatus code
+     * @param eligiblePeople people alive and unvaccinated
+     */
+    void setCounts(long[] totals, long eligiblePeople)
+    {
+        System.arraycopy(totals, 0, counts, 0, counts.length);
+        eligible = eligiblePeople;
+    }
+
+    void addVaccinated(long doses)
+    {
+        vaccinated += doses;
+    }
+
+    void addInfections(long people)
+    {
+        infections += people;
+    }
+
+    void setSpread(SpreadMode mode, long nanos)
+    {
+        spreadMode = mode;
+        spreadNanos = nanos;
+    }
+
+    void setFused(boolean fused)
+    {
+        this.fused = fused;
+    }
+
+    void setAllocatedBytes(long bytes)
+    {
+        allocatedBytes = bytes;
+    }
+
+    // -------------------------
+    // Getters
+    // -------------------------
+    public int getDay()
+    {
+        return day;
+    }
+
+    /**
+     * Returns the end-of-day status counts
+     *
+     * @return copy of the counts, indexed by HealthStatus code
+     */
+    public long[] getCounts()
+    {
+        return counts.clone();
+    }
+
+    /**
+     * Copies the end-of-day status counts into an existing array
+     *
+     * @param into array receiving the counts, indexed by HealthStatus code
+     */
+    public void copyCounts(long[] into)
+    {
+        System.arraycopy(counts, 0, into, 0, counts.length);
+    }
+
+    public long getCount(HealthStatus status)
+    {
+        return counts[status.code()];
+    }
+
+    /**
+     * @return people alive and unvaccinated at the end of the day
+     */
+    public long getEligible()
+    {
+        return eligible;
+    }
+
+    public long getVaccinated()
+    {
+        return vaccinated;
+    }
+
+    public long getInfections()
+    {
+        return infections;
+    }
+
+    public long getBecameContagious()
+    {
+        return becameContagious;
+    }
+
+    public long getRecoveries()
+    {
+        return recoveries;
+    }
+
+    public long getDeaths()
+    {
+        return deaths;
+    }
+
+    public SpreadMode getSpreadMode()
+    {
+        return spreadMode;
+    }
+
+    public long getSpreadNanos()
+    {
+        return spreadNanos;
+    }
+
+    public boolean isFused()
+    {
+        return fused;
+    }
+
+    /**
+     * Returns the heap bytes the step allocated on the calling thread and
+     * the engine's workers, when SimulationConfig.measureAllocations is set
+     *
+     * @return allocated bytes, or -1 if not measured
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Keeps the number of people of each status in every square tile of the
+ * grid, for drawing populations with more people than the screen has
+ * pixels. A tile is 2^shift people on a side and becomes one pixel, so a
+ * frame costs one pass over the tiles however many people there are.
+ * The counts start with every person SUSCEPTIBLE, by tile area, and the
+ * store moves the rest to their status, so a sparse store only walks the
+ * blocks it has allocated. After that the Population keeps them up to
+ * date on every status change. Tiles never span two stripes (the
+ * Population aligns its stripes to the tile height), so each stripe's
+ * worker only writes its own tiles.
+ */
+
+// DensityGrid IS-A per-tile status histogram of the grid
+// DensityGrid HAS-A tile size, tile layout and status counts per tile
+public class DensityGrid
+{
+    /** Number of status codes counted per tile */
+    public static final int STATUSES = HealthStatus.values().length;
+
+    private int shift;          // log2 of the tile side, in people
+    private long size;          // people in the grid
+    private int columns;        // grid columns
+    private int tileColumns;    // tiles per tile row
+    private int tileRows;       // tile rows
+    private int[] counts;       // [tile * STATUSES + code] people per status
+
+    /**
+     * Creates an empty grid; use build or copyFrom before reading it
+     */
+    public DensityGrid()
+    {
+        this.counts = new int[0];
+    }
+
+    /**
+     * Lays out the tiles of a population and counts every person, asking
+     * the store only for the people who are not SUSCEPTIBLE
+     *
+     * @param store store to count
+     * @param size people in the store
+     * @param columns grid columns
+     * @param shift log2 of the tile side (at most 15, so a tile's counts fit an int)
+     */
+    public void build(PopulationStore store, long size, int columns, int shift)
+    {
+        layout(size, columns, shift);
+        Arrays.fill(counts, 0, tileColumns * tileRows * STATUSES, 0);
+
+        int rows = columns == 0 ? 0 : (int) ((size + columns - 1) / columns);
+        int lastRowLength = rows == 0 ? 0 : (int) (size - (long) (rows - 1) * columns);
+        int side = 1 << shift;
+
+        for (int tileRow = 0; tileRow < tileRows; tileRow++)
+        {
+            int firstRow = tileRow << shift;
+            int height = Math.min(rows, firstRow + side) - firstRow;
+            boolean holdsLastRow = firstRow + height == rows;
+
+            for (int tileColumn = 0; tileColumn < tileColumns; tileColumn++)
+            {
+                int firstColumn = tileColumn << shift;
+                int width = Math.min(columns, firstColumn + side) - firstColumn;
+                int area = height * width;
+
+                if (holdsLastRow)
+                {
+                    area -= width - Math.max(0, Math.min(width, lastRowLength - firstColumn));
+                }
+                counts[(tileRow * tileColumns + tileColumn) * STATUSES + HealthStatus.SUSCEPTIBLE.code()] = area;
+            }
+        }
+        store.countDensity(this, columns);
+    }
+
+    /**
+     * Copies another grid's layout and counts, reusing this grid's array
+     *
+     * @param other grid to copy
+     */
+    public void copyFrom(DensityGrid other)
+    {
+        layout(other.size, other.columns, other.shift);
+        System.arraycopy(other.counts, 0, counts, 0, tileColumns * tileRows * STATUSES);
+    }
+
+    /**
+     * Moves one person between two status counts of their tile
+     *
+     * @param index index of the person
+     * @param from previous status code
+     * @param to new status code
+     */
+    public void move(long index, byte from, byte to)
+    {
+        int row = (int) (index / columns);
+
+        move(row, (int) (index - (long) row * columns), from, to);
+    }
+
+    /**
+     * Moves the person at a grid position between two status counts of their tile
+     *
+     * @param row grid row of the person
+     * @param column grid column of the person
+     * @param from previous status code
+     * @param to new status code
+     */
+    public void move(int row, int column, byte from, byte to)
+    {
+        int base = ((row >>> shift) * tileColumns + (column >>> shift)) * STATUSES;
+
+        counts[base + from]--;
+        counts[base + to]++;
+    }
+
+    /**
+     * Gets the number of people of one status in a tile
+     *
+     * @param tileRow tile row
+     * @param tileColumn tile column
+     * @param code HealthStatus code
+     * @return people of that status in the tile
+     */
+    public int getCount(int tileRow, int tileColumn, int code)
+    {
+        return counts[(tileRow * tileColumns + tileColumn) * STATUSES + code];
+    }
+
+    /**
+     * @return log2 of the tile side, in people
+     */
+    public int getShift()
+    {
+        return shift;
+    }
+
+    /**
+     * @return tiles per tile row
+     */
+    public int getTileColumns()
+    {
+        return tileColumns;
+    }
+
+    /**
+     * @return number of tile rows
+     */
+    public int getTileRows()
+    {
+        return tileRows;
+    }
+
+    /**
+     * Sets the tile layout and makes room for its counts
+     *
+     * @param size people in the grid
+     * @param columns grid columns
+     * @param shift log2 of the tile side
+     */
+    private void layout(long size, int columns, int shift)
+    {
+        int rows = columns == 0 ? 0 : (int) ((size + columns - 1) / columns);
+
+        this.size = size;
+        this.columns = columns;
+        this.shift = shift;
+        this.tileColumns = (columns + (1 << shift) - 1) >>> shift;
+        this.tileRows = (rows + (1 << shift) - 1) >>> shift;
+
+        int length = tileColumns * tileRows * STATUSES;
+
+        if (counts.length < length)
+        {
+            counts = new int[length];
+        }
+    }
+}
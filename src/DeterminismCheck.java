@@ -0,0 +1,121 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Command-line check that a run does not depend on its thread count.
+ * Runs the same seeded Covid-19 epidemic with vaccination once serially and
+ * once with worker threads, on one storage backend (OFF_HEAP by default),
+ * and compares the status totals of every day and every person's final
+ * status. Stripes that shared a flag word, or any other race between
+ * stripes, show up as a difference. Exits with status 1 on a difference,
+ * so it can guard a build.
+ *
+ * Usage: java DeterminismCheck [size] [days] [parallelism] [storage mode]
+ */
+
+// DeterminismCheck IS-A command-line parallel determinism check
+// DeterminismCheck HAS-A serial and parallel Controllers running the same simulation
+public class DeterminismCheck
+{
+    /**
+     * Runs the check
+     *
+     * @param args size, days, parallelism and storage mode, all optional
+     */
+    public static void main(String[] args)
+    {
+        long size = args.length > 0 ? Long.parseLong(args[0]) : 250_007;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        StorageMode mode = args.length > 3 ? StorageMode.valueOf(args[3]) : StorageMode.OFF_HEAP;
+
+        Controller serial = start(size, days, 1, mode);
+        Controller parallel = start(size, days, parallelism, mode);
+        boolean running = true;
+        int day = 0;
+        int failures = 0;
+
+        while (running)
+        {
+            running = serial.step();
+
+            if (parallel.step() != running)
+            {
+                System.out.println("Day " + day + ": the runs ended on different days");
+                failures++;
+                break;
+            }
+
+            DayReport expected = serial.getLastReport();
+            DayReport actual = parallel.getLastReport();
+
+            for (HealthStatus status : HealthStatus.values())
+            {
+                if (expected.getCount(status) != actual.getCount(status))
+                {
+                    System.out.println("Day " + day + ": " + status + " " + actual.getCount(status)
+                                       + " with " + parallelism + " threads, " + expected.getCount(status) + " serially");
+                    failures++;
+                }
+            }
+            day++;
+        }
+
+        Population expected = serial.getPopulation();
+        Population actual = parallel.getPopulation();
+        long differentPeople = 0;
+
+        for (long cell = 0; cell < expected.size(); cell++)
+        {
+            if (expected.getStatusCode(cell) != actual.getStatusCode(cell)
+                || expected.isContagious(cell) != actual.isContagious(cell))
+            {
+                differentPeople++;
+            }
+        }
+
+        System.out.println(mode + ", " + size + " people, " + day + " days, " + parallelism + " threads: "
+                           + failures + " totals and " + differentPeople + " people differ");
+        serial.getStatistics().close();
+        parallel.getStatistics().close();
+
+        if (failures > 0 || differentPeople > 0)
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sets up one seeded run, with the same first infections as every other
+     *
+     * @param size number of people
+     * @param days maximum number of days
+     * @param parallelism worker threads per day
+     * @param mode storage backend
+     * @return controller ready to step
+     */
+    private static Controller start(long size, int days, int parallelism, StorageMode mode)
+    {
+        SimulationConfig config = new SimulationConfig();
+        config.getPopulation().setStorageMode(mode);
+        config.getPopulation().setSize(size);
+        config.maxDays = days;
+        config.parallelism = parallelism;
+        config.setDisease(new Covid19());
+        config.vaccinationEnabled = true;
+        config.seed = 42;
+
+        Controller controller = new Controller();
+        controller.applyConfig(config);
+        Population population = controller.getPopulation();
+
+        for (long cell = 0; cell < population.size(); cell += 9_973)
+        {
+            population.infect(cell, controller.getDisease());
+        }
+        return controller;
+    }
+}
@@ -1,4 +1,5 @@
-import java.util.List;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 /**
  * Lead Author(s):
@@ -12,16 +13,25 @@ import java.io.Serializable;
  * 
  * Responsibilities of class:
  * Represents a disease in the simulation.
- * Tracks infection rate, mortality rate, recovery days, contagious days, and name.
- * Contains logic to spread the disease among a Population.
+ * Tracks infection rate, mortality rate, recovery days, contagious days, name,
+ * and the contact kernel deciding who counts as a neighbor.
+ * Contains the contact-graph and contact-kernel spreads; the grid's push
+ * and pull scans for each store layout are SpreadKernels.
  */
 
-// Disease HAS-A name, infection rate, mortality rate, recovery and contagious day ranges
+// Disease HAS-A name, infection rate, mortality rate, recovery and contagious day ranges, contact kernel
 // Disease IS-A model entity
 public class Disease implements Serializable 
 {
 
 	private static final long serialVersionUID = 1L;
+
+    /** Contact distance in cells: people within this many rows and columns are neighbors */
+    public static final int NEIGHBORHOOD_RADIUS = 2;
+
+    /** Number of neighbors around a person (the 5x5 square minus the person) */
+    public static final int NEIGHBORHOOD_SIZE = (2 * NEIGHBORHOOD_RADIUS + 1) * (2 * NEIGHBORHOOD_RADIUS + 1) - 1;
+
     private String name;                   // name of the disease
     private double infectionRate;          // chance per day to infect a susceptible person (0..1)
     private double mortalityRate;          // chance per day for infected to die (0..1)
@@ -29,6 +39,9 @@ public class Disease implements Serializable
     private int maxRecoveryDays;           // maximum recovery duration
     private int minContagiousDays;         // minimum contagious duration
     private int maxContagiousDays;         // maximum contagious duration
+    private ContactKernel contactKernel;   // who counts as a contact, and how much
+
+    private transient double[] exposureTable;     // chance of infection by number of contagious neighbors
 
     /**
      * Default constructor
@@ -61,11 +74,13 @@ public class Disease implements Serializable
         this.maxRecoveryDays = maxRecovery;
         this.minContagiousDays = minContagious;
         this.maxContagiousDays = maxContagious;
+        this.contactKernel = ContactKernel.DEFAULT;
+        buildExposureTable();
     }
     
     public Disease copy()
     {
-        return new Disease
+        Disease copy = new Disease
         (
             this.name,
             this.infectionRate,
@@ -75,6 +90,8 @@ public class Disease implements Serializable
             this.minContagiousDays,
             this.maxContagiousDays
         );
+        copy.setContactKernel(getContactKernel());
+        return copy;
     }
 
 
@@ -120,6 +137,88 @@ public class Disease implements Serializable
     public void setInfectionRate(double rate)
     {
         this.infectionRate = rate;
+        buildExposureTable();
+    }
+
+    /**
+     * Retrieves the contact kernel
+     * Presets saved before kernels existed read back as the default
+     * 
+     * @return who counts as a contact, and how much
+     */
+    public ContactKernel getContactKernel()
+    {
+        return contactKernel == null ? ContactKernel.DEFAULT : contactKernel;
+    }
+
+    /**
+     * Sets the contact kernel
+     * Ignores null kernels
+     * 
+     * @param kernel who counts as a contact, and how much
+     */
+    public void setContactKernel(ContactKernel kernel)
+    {
+        if (kernel != null)
+        {
+            this.contactKernel = kernel;
+            buildExposureTable();
+        }
+    }
+
+    /**
+     * Retrieves the chance that a susceptible person is infected in one day
+     * by k contagious neighbors, which is 1 - (1 - infectionRate)^k.
+     * Values come from a table built whenever the rate or kernel is set,
+     * so the parallel stripe kernels only ever read it.
+     * 
+     * @param contagiousNeighbors number of contagious neighbors (0..contact kernel's neighbor count)
+     * @return daily infection probability
+     */
+    public double getExposureProbability(int contagiousNeighbors)
+    {
+        return exposureTable[contagiousNeighbors];
+    }
+
+    /**
+     * Builds the exposure table for the current infection rate and contact kernel
+     */
+    private void buildExposureTable()
+    {
+        double[] table = new double[Math.max(NEIGHBORHOOD_SIZE, getContactKernel().getNeighborCount()) + 1];
+        double escape = 1.0; // chance of avoiding every contact so far
+
+        for (int k = 0; k < table.length; k++)
+        {
+            table[k] = 1.0 - escape;
+            escape *= 1.0 - infectionRate;
+        }
+        exposureTable = table;
+    }
+
+    /**
+     * Restores a saved disease and rebuilds its exposure table
+     * 
+     * @param in stream to read from
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if a saved class is missing
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        buildExposureTable();
+    }
+
+    /**
+     * Retrieves the chance that a susceptible person is infected in one day
+     * by a weighted number of contagious contacts, 1 - (1 - infectionRate)^pressure
+     * 
+     * @param pressure sum of the kernel weights of the contagious contacts
+     * @return daily infection probability
+     */
+    public double getExposureProbability(double pressure)
+    {
+        return pressure <= 0 ? 0.0 : 1.0 - Math.pow(1.0 - infectionRate, pressure);
     }
 
     /**
@@ -189,137 +288,200 @@ public class Disease implements Serializable
     }
 
     /**
-     * Generates a random number of days in the range [min, max]
+     * Maps a uniform random number to a number of days in the range [min, max]
      * 
      * @param min minimum value
      * @param max maximum value
-     * @return random integer in range
+     * @param u uniform random number in [0, 1)
+     * @return integer in range
      */
-    private int randomDays(int min, int max)
+    private int randomDays(int min, int max, double u)
     {
-        return (max <= min) ? min : min + (int)(Math.random() * (max - min + 1));
+        return (max <= min) ? min : min + (int)(u * (max - min + 1));
     }
 
     /**
      * Randomly generates recovery duration for a person
      * 
+     * @param random counter-based random source
+     * @param day day of infection
+     * @param cell index of the person being infected
      * @return recovery days
      */
-    public int randomRecoveryDays()
+    public int randomRecoveryDays(CounterRng random, int day, long cell)
     {
-        return randomDays(minRecoveryDays, maxRecoveryDays);
+        return randomDays(minRecoveryDays, maxRecoveryDays, random.uniform(day, cell, CounterRng.RECOVERY_DAYS));
     }
 
     /**
      * Randomly generates contagious duration for a person
      * 
+     * @param random counter-based random source
+     * @param day day of infection
+     * @param cell index of the person being infected
      * @return contagious days
      */
-    public int randomContagiousDays()
+    public int randomContagiousDays(CounterRng random, int day, long cell)
     {
-        return randomDays(minContagiousDays, maxContagiousDays);
+        return randomDays(minContagiousDays, maxContagiousDays, random.uniform(day, cell, CounterRng.CONTAGIOUS_DAYS));
     }
 
     /**
-     * Spread disease among a population
-     * Infects only susceptible people within neighborhood
+     * Randomly generates the daily update on which an infected person dies
+     * The daily chance of death is mortalityRate, so the number of updates
+     * survived is geometric; it is drawn once at infection by inverting
+     * the geometric distribution with a single uniform draw
      * 
-     * @param population population to spread disease to
+     * @param random counter-based random source
+     * @param day day of infection
+     * @param cell index of the person being infected
+     * @return updates survived before death (0 = dies on the first update),
+     *         or Integer.MAX_VALUE if the disease is never fatal
      */
-    public void spread(Population population)
+    public int randomDeathDay(CounterRng random, int day, long cell)
     {
-        List<Person> people = population.getPeople();
-        int total = people.size();
-
-        if (total == 0)
+        if (mortalityRate <= 0)
         {
-            return;
+            return Integer.MAX_VALUE;
         }
-
-        int cols = population.getColumnCount();
-        int rows = population.getRowCount();
-        HealthStatus[] nextState = new HealthStatus[total];
-
-        // copy current states (so new infections don't immediately infect others)
-        for (int i = 0; i < total; i++)
+        if (mortalityRate >= 1)
         {
-            nextState[i] = people.get(i).getHealthStatus();
+            return 0;
         }
 
-        for (int i = 0; i < total; i++)
+        double u = random.uniform(day, cell, CounterRng.MORTALITY);
+        double updates = Math.floor(Math.log1p(-u) / Math.log1p(-mortalityRate));
+        return updates >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) updates;
+    }
+
+    /**
+     * Runs today's infection attempts from the contagious people of one
+     * stripe over a contact graph instead of the grid neighborhood. Each
+     * source walks its adjacency slice; every edge gets its own random draw
+     * for the day, keyed by the edge. Targets can be anywhere in the graph,
+     * so they all go to one list for the caller to route to their stripes.
+     * Does not change the population.
+     * 
+     * @param population population whose people are the graph's nodes
+     * @param graph contact network to spread over
+     * @param stripe stripe (node range) holding the contagious sources
+     * @param targets receives the people to infect
+     */
+    public void collectInfections(Population population, ContactGraph graph, int stripe, CellList targets)
+    {
+        CellList sources = population.getActiveCells(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+
+        for (int i = 0; i < sources.size(); i++)
         {
-            Person source = people.get(i);
+            int source = (int) sources.get(i);
 
-            // Only contagious people can spread
-            if (source.isContagious())
+            if (!population.isContagious(source))
             {
-                int row = i / cols;
-                int col = i % cols;
-
-                // neighborhood distance 2
-                for (int dr = -2; dr <= 2; dr++)
-                {
-                    for (int dc = -2; dc <= 2; dc++)
-                    {
-                        if (dr == 0 && dc == 0)
-                        {
-                            continue;
-                        }
-
-                        attemptInfectNeighbor(people, nextState, row + dr, col + dc, cols, rows);
-                    }
-                }
+                continue;
             }
-        }
 
-        // apply new infections
-        for (int i = 0; i < total; i++)
-        {
-            if (nextState[i] == HealthStatus.INFECTED)
+            for (int edge = graph.edgesStart(source); edge < graph.edgesEnd(source); edge++)
             {
-                people.get(i).infect(this);
+                int target = graph.getTarget(edge);
+
+                if (population.getStatusCode(target) == susceptible
+                    && random.uniform(day, edge, CounterRng.CONTACT_EDGE) < infectionRate)
+                {
+                    targets.add(target);
+                }
             }
         }
     }
 
     /**
-     * Attempts to infect a neighbor at the given row/column
+     * Runs today's infections for the susceptible people of one stripe by
+     * pulling through the contact kernel. Pressure is built a row at a time
+     * by KernelPressure, so the cost per person stays O(1) for a BOX and
+     * O(radius) for a weighted kernel instead of O(radius^2). Each susceptible
+     * person draws once, as in SpreadKernel.pull; for the default
+     * kernel the results are the same as that scan.
+     * Does not change the population; only people of this stripe are added.
      * 
-     * @param people list of people in population
-     * @param nextState array of next health states
-     * @param row target row
-     * @param col target column
-     * @param cols total columns in grid
-     * @param rows total rows in grid
+     * @param population population to spread disease through
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     * @param pressure scratch owned by the caller for this stripe
      */
-    private void attemptInfectNeighbor(List<Person> people, HealthStatus[] nextState, int row, int col, int cols, int rows)
+    public void collectInfectionsByKernel(Population population, int stripe, CellList own, KernelPressure pressure)
     {
-        if (row < 0 || row >= rows)
-        {
-            return;
-        }
-
-        if (col < 0 || col >= cols)
+        ContactKernel kernel = getContactKernel();
+        int cols = population.getColumnCount();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+        boolean weighted = kernel.getShape() != KernelShape.BOX;
+
+        if (stripeStart >= stripeEnd)
         {
             return;
         }
 
-        int index = row * cols + col;
+        int firstRow = (int) (stripeStart / cols);
+        int lastRow = (int) ((stripeEnd - 1) / cols);
+        pressure.begin(population, kernel, firstRow);
 
-        if (index < 0 || index >= people.size())
+        for (int row = firstRow; row <= lastRow; row++)
         {
-            return;
-        }
+            if (row > firstRow)
+            {
+                pressure.advance(population, row);
+            }
 
-        Person neighbor = people.get(index);
+            if (!pressure.prepareRow(kernel, row))
+            {
+                continue; // nobody contagious within reach of this row
+            }
 
-        // only attempt to infect SUSCEPTIBLE people
-        if (neighbor.getHealthStatus() == HealthStatus.SUSCEPTIBLE)
-        {
-            if (Math.random() < infectionRate)
+            long rowStart = (long) row * cols;
+            int firstCol = (int) Math.max(0, stripeStart - rowStart);
+            int lastCol = (int) Math.min(cols, stripeEnd - rowStart);
+
+            for (int col = firstCol; col < lastCol; col++)
             {
-                nextState[index] = HealthStatus.INFECTED;
+                long cell = rowStart + col;
+
+                if (population.getStatusCode(cell) != susceptible)
+                {
+                    continue;
+                }
+
+                double chance = weighted
+                                ? getExposureProbability(pressure.weighted(kernel, col))
+                                : getExposureProbability(pressure.count(col));
+
+                if (chance > 0 && random.uniform(day, cell, CounterRng.INFECTION_PRESSURE) < chance)
+                {
+                    own.add(cell);
+                }
             }
         }
     }
+
+    /**
+     * Draws whether a susceptible person catches the disease today from the
+     * pressure of their contagious neighbors: one draw against
+     * 1 - (1 - infectionRate)^k for k contagious neighbors.
+     * Used by the pull scans of every SpreadKernel, so they all draw alike.
+     *
+     * @param population population holding the person
+     * @param cell index of a susceptible person
+     * @param contagious contagious people in the neighborhood
+     * @return true if the person is infected today
+     */
+    public boolean catchesByPressure(Population population, long cell, int contagious)
+    {
+        return contagious > 0
+               && population.getRandom().uniform(population.getDay(), cell, CounterRng.INFECTION_PRESSURE)
+                  < getExposureProbability(contagious);
+    }
 }
@@ -0,0 +1,139 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Keeps a dense list of the people who may still be eligible for a vaccine
+ * and draws uniform random samples from it without replacement.
+ * A drawn slot is swap-removed (the last entry moves into it), so picking k
+ * people costs O(k) draws and allocates nothing. People who died or were
+ * vaccinated outside of sampling stay listed until a draw lands on them or
+ * the list is compacted, so the parallel daily update never has to touch it.
+ * Entries are stored off the heap as person + 1; a zero entry stands for
+ * the person with the slot's own index, so a new list needs no filling.
+ * That costs 4 bytes of direct memory per person, or 8 bytes from 2^31
+ * people on, all allocated up front: 4 GB for a billion people. Population
+ * falls back to a scan when -XX:MaxDirectMemorySize cannot hold it.
+ */
+
+// EligibleIndex IS-A sampler of eligible people
+// EligibleIndex HAS-A off-heap list of people and its live length
+public class EligibleIndex
+{
+    private final OffHeapArray slots;   // person + 1 per slot, or 0 for the slot's own index
+    private final boolean wide;         // true if entries need 8 bytes
+    private long length;                // slots in use
+
+    /**
+     * Creates a list holding every person of a population of the given size
+     *
+     * @param size number of people
+     * @throws OutOfMemoryError if direct memory cannot hold the list
+     */
+    public EligibleIndex(long size)
+    {
+        this.wide = size >= Integer.MAX_VALUE;
+        this.slots = new OffHeapArray(size, wide ? 8 : 4);
+        this.length = size;
+    }
+
+    /**
+     * @return slots in use, including people who are no longer eligible
+     */
+    public long length()
+    {
+        return length;
+    }
+
+    /**
+     * Vaccinates a uniform random sample of the eligible people
+     * Each draw picks a slot uniformly; slots of people who are no longer
+     * eligible are dropped and drawn again, which keeps every eligible
+     * person equally likely
+     *
+     * @param population population the list belongs to
+     * @param vaccination campaign applying the doses
+     * @param doses people to vaccinate, at most the eligible count
+     * @param day current simulation day, keys the random draws
+     * @return doses given
+     */
+    public long sample(Population population, Vaccination vaccination, long doses, int day)
+    {
+        if (length > 2 * population.getEligibleCount() + 64)
+        {
+            compact(population); // mostly stale entries, drop them in one pass
+        }
+
+        CounterRng random = population.getRandom();
+        long given = 0;
+        long draw = 0;
+
+        while (given < doses && length > 0)
+        {
+            long slot = Math.min(length - 1, (long) (random.uniform(day, draw++, CounterRng.VACCINE_PICK) * length));
+            long person = get(slot);
+            set(slot, get(length - 1));
+            length--;
+
+            if (isEligible(population, person))
+            {
+                vaccination.applyTo(population, person);
+                given++;
+            }
+        }
+        return given;
+    }
+
+    /**
+     * Removes every person who is no longer eligible, keeping the order of the rest
+     *
+     * @param population population the list belongs to
+     */
+    private void compact(Population population)
+    {
+        long kept = 0;
+
+        for (long slot = 0; slot < length; slot++)
+        {
+            long person = get(slot);
+
+            if (isEligible(population, person))
+            {
+                set(kept++, person);
+            }
+        }
+        length = kept;
+    }
+
+    /**
+     * Checks if a person can still receive a vaccine (not dead and not vaccinated)
+     *
+     * @param population population holding the person
+     * @param person index of the person
+     * @return true if the person is eligible
+     */
+    private static boolean isEligible(Population population, long person)
+    {
+        return population.getStatusCode(person) != HealthStatus.DEAD.code() && !population.isVaccinated(person);
+    }
+
+    private long get(long slot)
+    {
+        long entry = wide ? slots.getLong(slot) : slots.getInt(slot);
+        return entry == 0 ? slot : entry - 1;
+    }
+
+    private void set(long slot, long person)
+    {
+        if (wide)
+        {
+            slots.putLong(slot, person + 1);
+        }
+        else
+        {
+            slots.putInt(slot, (int) (person + 1));
+        }
+    }
+}
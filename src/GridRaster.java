@@ -0,0 +1,519 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Renders the simulation grid into cached square tiles of source pixels,
+ * for the panel to draw through a Viewport. At level 0 a source pixel is
+ * one person; at level s it is one tile of the population's DensityGrid,
+ * colored with either the mix of its people's colors or the color of its
+ * most common status. Pixels are packed ARGB values from a lookup table
+ * indexed by status code, written straight into each tile image's int[]
+ * raster. Tiles are kept per level, so zooming back to a level or panning
+ * over it again only draws cached images; the tiles rendered for a frame
+ * are filled in parallel.
+ * A cached tile is only redrawn when its people change: the people listed
+ * as changed are re-colored in place in tiles of the level whose data is
+ * at hand, and tiles of other levels are marked stale and rendered again
+ * when their level is next drawn with data. The bounds of the re-colored
+ * pixels are reported, so only those parts of the screen are repainted.
+ */
+
+// GridRaster IS-A cache of rendered grid tiles
+// GridRaster HAS-A tile images per level, the status color table and the data of the current level
+public class GridRaster
+{
+    /** Colors of the health statuses, by status code */
+    public static final Color[] STATUS_COLORS = statusColors();
+
+    /** log2 of the source pixels per tile side */
+    public static final int TILE_SHIFT = 7;
+
+    /** Source pixels per tile side */
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+
+    private static final int[] STATUS_ARGB = argbTable(STATUS_COLORS);
+    private static final int MAX_TILES = 1024;  // cached tiles, 64 KB each
+
+    private final LinkedHashMap<Long, Tile> tiles;  // by keyOf(level, tileX, tileY), least recently drawn first
+    private long cachedLevels;          // bit per level that has had tiles in the cache
+    private boolean mixColors = true;   // mix tile colors, rather than show the most common status
+
+    // data of the level being drawn
+    private int dataLevel = -1;         // level the data is for, -1 if there is none
+    private StatusSource statuses;      // status of every person (level 0)
+    private long size;                  // people in the grid (level 0)
+    private int columns;                // grid columns
+    private DensityGrid density;        // tile counts (levels above 0)
+
+    /**
+     * Creates an empty cache
+     */
+    public GridRaster()
+    {
+        tiles = new LinkedHashMap<Long, Tile>(64, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest)
+            {
+                return size() > MAX_TILES;
+            }
+        };
+    }
+
+    /**
+     * Draws from the statuses of every person (level 0)
+     *
+     * @param statuses status code of every person
+     * @param size people in the grid
+     * @param columns grid columns
+     */
+    public void useStatuses(StatusSource statuses, long size, int columns)
+    {
+        this.dataLevel = 0;
+        this.statuses = statuses;
+        this.size = size;
+        this.columns = columns;
+        this.density = null;
+    }
+
+    /**
+     * Draws from tile counts, at the level of their tile size
+     *
+     * @param density tile counts
+     * @param columns grid columns
+     */
+    public void useDensity(DensityGrid density, int columns)
+    {
+        this.dataLevel = density.getShift();
+        this.statuses = null;
+        this.columns = columns;
+        this.density = density;
+    }
+
+    /**
+     * Draws only what is cached, having no data at hand
+     *
+     * @param columns grid columns
+     */
+    public void useNothing(int columns)
+    {
+        this.dataLevel = -1;
+        this.statuses = null;
+        this.columns = columns;
+        this.density = null;
+    }
+
+    /**
+     * Sets how a tile of people is colored at levels above 0
+     *
+     * @param mix true to mix the colors of the tile's people, false to use
+     *        the color of its most common status
+     */
+    public void setMixColors(boolean mix)
+    {
+        if (mix != mixColors)
+        {
+            mixColors = mix;
+            invalidate();
+        }
+    }
+
+    /**
+     * Marks every cached tile stale, keeping them to draw until their
+     * level's data is at hand again
+     */
+    public void invalidate()
+    {
+        for (Tile tile : tiles.values())
+        {
+            tile.stale = true;
+        }
+    }
+
+    /**
+     * Drops every cached tile
+     */
+    public void clear()
+    {
+        tiles.clear();
+        cachedLevels = 0;
+    }
+
+    /**
+     * Checks if any tile the viewport shows is stale, so the whole panel
+     * must be repainted rather than the bounds of the changes
+     *
+     * @param view viewport to check
+     * @param width panel width in pixels
+     * @param height panel height in pixels
+     * @return true if a visible cached tile is stale
+     */
+    public boolean hasStaleTiles(Viewport view, int width, int height)
+    {
+        int[] range = visibleTiles(view, width, height);
+
+        for (int tileY = range[1]; tileY <= range[3]; tileY++)
+        {
+            for (int tileX = range[0]; tileX <= range[2]; tileX++)
+            {
+                Tile tile = tiles.get(keyOf(view.getLevel(), tileX, tileY));
+
+                if (tile != null && tile.stale)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws the part of the grid the viewport shows. Visible tiles that
+     * are missing or stale are rendered first if the data of the view's
+     * level is at hand; otherwise stale tiles are drawn as they are and
+     * missing ones are left out.
+     *
+     * @param g Graphics object
+     * @param view viewport to draw through
+     * @param width panel width in pixels
+     * @param height panel height in pixels
+     */
+    public void draw(Graphics g, Viewport view, int width, int height)
+    {
+        int level = view.getLevel();
+        int tileScreen = TILE_SIZE * view.getScale();
+        int[] range = visibleTiles(view, width, height);
+        int firstX = range[0];
+        int firstY = range[1];
+        int lastX = range[2];
+        int lastY = range[3];
+
+        List<Tile> render = new ArrayList<>();
+
+        for (int tileY = firstY; tileY <= lastY; tileY++)
+        {
+            for (int tileX = firstX; tileX <= lastX; tileX++)
+            {
+                long key = keyOf(level, tileX, tileY);
+                Tile tile = tiles.get(key);
+
+                if (dataLevel == level && (tile == null || tile.stale))
+                {
+                    if (tile == null)
+                    {
+                        tile = new Tile(tileX, tileY);
+                        tiles.put(key, tile);
+                        cachedLevels |= 1L << level;
+                    }
+                    render.add(tile);
+                }
+            }
+        }
+
+        render.parallelStream().forEach(tile -> renderTile(tile, level));
+
+        for (int tileY = firstY; tileY <= lastY; tileY++)
+        {
+            for (int tileX = firstX; tileX <= lastX; tileX++)
+            {
+                Tile tile = tiles.get(keyOf(level, tileX, tileY));
+
+                if (tile != null)
+                {
+                    int x = (int) ((long) tileX * tileScreen - view.getOffsetX());
+                    int y = (int) ((long) tileY * tileScreen - view.getOffsetY());
+                    g.drawImage(tile.image, x, y, x + tileScreen, y + tileScreen, 0, 0, TILE_SIZE, TILE_SIZE, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tiles the viewport shows
+     *
+     * @param view viewport to draw through
+     * @param width panel width in pixels
+     * @param height panel height in pixels
+     * @return first tile column, first tile row, last tile column and last tile row (inclusive)
+     */
+    private static int[] visibleTiles(Viewport view, int width, int height)
+    {
+        int tileScreen = TILE_SIZE * view.getScale();
+
+        return new int[] {
+            (int) (view.getOffsetX() / tileScreen),
+            (int) (view.getOffsetY() / tileScreen),
+            (int) Math.min((view.getSourceWidth() - 1) >> TILE_SHIFT, (view.getOffsetX() + width - 1) / tileScreen),
+            (int) Math.min((view.getSourceHeight() - 1) >> TILE_SHIFT, (view.getOffsetY() + height - 1) / tileScreen)
+        };
+    }
+
+    /**
+     * Applies a list of changed people to the cached tiles: pixels of the
+     * level whose data is at hand are re-colored in place, tiles of other
+     * levels holding a changed person are marked stale
+     *
+     * @param changed people whose status changed
+     * @param level level whose changed pixels are reported
+     * @return bounds of the changed pixels at that level, one rectangle
+     *         per tile, in source pixels
+     */
+    public List<Rectangle> applyChanges(CellList changed, int level)
+    {
+        Map<Long, Rectangle> dirty = new HashMap<>();
+
+        for (int i = 0; i < changed.size(); i++)
+        {
+            long index = changed.get(i);
+            int row = (int) (index / columns);
+            int column = (int) (index - (long) row * columns);
+
+            for (long levels = cachedLevels; levels != 0; levels &= levels - 1)
+            {
+                int cachedLevel = Long.numberOfTrailingZeros(levels);
+                int x = column >>> cachedLevel;
+                int y = row >>> cachedLevel;
+                long key = keyOf(cachedLevel, x >>> TILE_SHIFT, y >>> TILE_SHIFT);
+                Tile tile = tiles.get(key);
+                int extent = 1;
+
+                if (tile == null || tile.stale)
+                {
+                    continue;
+                }
+
+                if (cachedLevel != dataLevel)
+                {
+                    tile.stale = true;
+                    x = tile.tileX << TILE_SHIFT;
+                    y = tile.tileY << TILE_SHIFT;
+                    extent = TILE_SIZE;
+                }
+                else
+                {
+                    tile.pixels[(y & (TILE_SIZE - 1)) * TILE_SIZE + (x & (TILE_SIZE - 1))] =
+                        cachedLevel == 0 ? STATUS_ARGB[statuses.getStatusCode(index)] : densityColor(y, x);
+                }
+
+                if (cachedLevel == level)
+                {
+                    Rectangle bounds = dirty.get(key);
+
+                    if (bounds == null)
+                    {
+                        dirty.put(key, new Rectangle(x, y, extent, extent));
+                    }
+                    else
+                    {
+                        bounds.add(x, y);
+                        bounds.add(x + extent, y + extent);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(dirty.values());
+    }
+
+    /**
+     * Gets the packed ARGB color of a status code
+     *
+     * @param code HealthStatus code
+     * @return ARGB color
+     */
+    public static int argbOf(byte code)
+    {
+        return STATUS_ARGB[code];
+    }
+
+    /**
+     * Fills a tile from the data of its level
+     * Pixels past the edge of the grid stay transparent
+     *
+     * @param tile tile to fill
+     * @param level level of the tile
+     */
+    private void renderTile(Tile tile, int level)
+    {
+        int left = tile.tileX << TILE_SHIFT;
+        int top = tile.tileY << TILE_SHIFT;
+
+        for (int y = 0; y < TILE_SIZE; y++)
+        {
+            int offset = y * TILE_SIZE;
+
+            for (int x = 0; x < TILE_SIZE; x++)
+            {
+                if (level == 0)
+                {
+                    long index = (long) (top + y) * columns + left + x;
+                    boolean inGrid = left + x < columns && index < size;
+                    tile.pixels[offset + x] = inGrid ? STATUS_ARGB[statuses.getStatusCode(index)] : 0;
+                }
+                else
+                {
+                    boolean inGrid = left + x < density.getTileColumns() && top + y < density.getTileRows();
+                    tile.pixels[offset + x] = inGrid ? densityColor(top + y, left + x) : 0;
+                }
+            }
+        }
+        tile.stale = false;
+    }
+
+    /**
+     * Colors one tile of the density grid
+     *
+     * @param tileRow tile row
+     * @param tileColumn tile column
+     * @return ARGB color, or 0 for an empty tile
+     */
+    private int densityColor(int tileRow, int tileColumn)
+    {
+        return mixColors ? mixedColor(density, tileRow, tileColumn) : dominantColor(density, tileRow, tileColumn);
+    }
+
+    /**
+     * Averages the colors of the people in a tile
+     *
+     * @param density tile counts
+     * @param tileRow tile row
+     * @param tileColumn tile column
+     * @return ARGB color, or 0 for an empty tile
+     */
+    private static int mixedColor(DensityGrid density, int tileRow, int tileColumn)
+    {
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        long people = 0;
+
+        for (int code = 0; code < DensityGrid.STATUSES; code++)
+        {
+            int count = density.getCount(tileRow, tileColumn, code);
+            int argb = STATUS_ARGB[code];
+
+            red += (long) count * ((argb >> 16) & 0xFF);
+            green += (long) count * ((argb >> 8) & 0xFF);
+            blue += (long) count * (argb & 0xFF);
+            people += count;
+        }
+
+        if (people == 0)
+        {
+            return 0;
+        }
+        return 0xFF000000 | (int) (red / people) << 16 | (int) (green / people) << 8 | (int) (blue / people);
+    }
+
+    /**
+     * Picks the color of the most common status in a tile
+     *
+     * @param density tile counts
+     * @param tileRow tile row
+     * @param tileColumn tile column
+     * @return ARGB color, or 0 for an empty tile
+     */
+    private static int dominantColor(DensityGrid density, int tileRow, int tileColumn)
+    {
+        int best = -1;
+        int bestCount = 0;
+
+        for (int code = 0; code < DensityGrid.STATUSES; code++)
+        {
+            int count = density.getCount(tileRow, tileColumn, code);
+
+            if (count > bestCount)
+            {
+                best = code;
+                bestCount = count;
+            }
+        }
+        return best < 0 ? 0 : STATUS_ARGB[best];
+    }
+
+    /**
+     * Packs a level and tile position into a cache key
+     *
+     * @param level level of the tile
+     * @param tileX tile column
+     * @param tileY tile row
+     * @return cache key
+     */
+    private static long keyOf(int level, int tileX, int tileY)
+    {
+        return (long) level << 56 | (long) tileY << 28 | tileX;
+    }
+
+    /**
+     * @return colors of the health statuses, by status code
+     */
+    private static Color[] statusColors()
+    {
+        Color[] colors = new Color[HealthStatus.values().length];
+        colors[HealthStatus.SUSCEPTIBLE.code()] = Color.GREEN;
+        colors[HealthStatus.INFECTED.code()] = Color.RED;
+        colors[HealthStatus.CONTAGIOUS.code()] = Color.ORANGE;
+        colors[HealthStatus.RECOVERED.code()] = new Color(0, 100, 0);     // DARK GREEN
+        colors[HealthStatus.VACCINATED.code()] = new Color(0, 150, 255);  // LIGHT BLUE
+        colors[HealthStatus.DEAD.code()] = Color.DARK_GRAY;
+        return colors;
+    }
+
+    /**
+     * Packs colors into ARGB ints
+     *
+     * @param colors colors to pack
+     * @return ARGB values in the same order
+     */
+    private static int[] argbTable(Color[] colors)
+    {
+        int[] argb = new int[colors.length];
+
+        for (int i = 0; i < colors.length; i++)
+        {
+            argb[i] = colors[i] == null ? Color.BLACK.getRGB() : colors[i].getRGB();
+        }
+        return argb;
+    }
+
+    // StatusSource IS-A reader of status codes by person index
+    public interface StatusSource
+    {
+        byte getStatusCode(long index);
+    }
+
+    // Tile IS-A cached square of rendered source pixels
+    // Tile HAS-A position, image, its int[] raster and a stale flag
+    private static class Tile
+    {
+        final int tileX;                // tile column
+        final int tileY;                // tile row
+        final BufferedImage image;      // TILE_SIZE square, ARGB
+        final int[] pixels;             // the image's raster, row-major
+        boolean stale;                  // true if the pixels may be out of date
+
+        Tile(int tileX, int tileY)
+        {
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            this.stale = true;
+        }
+    }
+}
@@ -21,5 +21,28 @@ public enum HealthStatus
     CONTAGIOUS,  // person who is recovered but still contagious
     RECOVERED,   // person has recovered and not contagious
     VACCINATED,   // person who is vaccinated
-    DEAD         // person has died from infection
+    DEAD;        // person has died from infection
+
+    private static final HealthStatus[] VALUES = values(); // cached lookup for decoding codes
+
+    /**
+     * Returns the compact code used when this status is stored in a byte column
+     * 
+     * @return status code (the ordinal of this constant)
+     */
+    public byte code()
+    {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Decodes a status code produced by {@link #code()}
+     * 
+     * @param code stored status code
+     * @return matching HealthStatus
+     */
+    public static HealthStatus fromCode(int code)
+    {
+        return VALUES[code];
+    }
 }
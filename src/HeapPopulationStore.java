@@ -0,0 +1,216 @@
+import java.util.Arrays;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Stores population state in primitive arrays on the Java heap.
+ * Status codes and contagious flags are laid out as the simulation grid
+ * with a ghost border of NEIGHBORHOOD_RADIUS cells on every side and a
+ * fixed row stride. Border cells and the unused end of a ragged last row
+ * hold NOT_A_PERSON and are never contagious, so neighborhood kernels can
+ * visit all offsets around a person with plain index arithmetic and no
+ * bounds checks. Vaccinated flags are a bitset by person index.
+ */
+
+// HeapPopulationStore IS-A PopulationStore
+// HeapPopulationStore HAS-A padded status and contagious grids and a vaccinated bitset
+public class HeapPopulationStore implements PopulationStore
+{
+    /** Largest size a heap store can hold (Java array limit) */
+    public static final long MAX_SIZE = Integer.MAX_VALUE - 8;
+    /** Ghost cells on each side of the grid, enough for one neighborhood */
+    public static final int PADDING = Disease.NEIGHBORHOOD_RADIUS;
+    /** Status code of ghost cells; matches no HealthStatus */
+    public static final byte NOT_A_PERSON = -1;
+
+    private final long size;                    // number of people stored
+    private final int columns;                  // grid columns
+    private final int stride;                   // padded row length, columns + 2 * PADDING
+    private final byte[] status;                // padded grid of HealthStatus codes
+    private final byte[] contagious;            // padded grid of contagious flags (0 or 1)
+    private final long[] vaccinated;            // bitset, one bit per person
+
+    /**
+     * Allocates the padded grids for a population laid out in rows of the given width
+     * Every person starts SUSCEPTIBLE and unvaccinated
+     *
+     * @param size number of people
+     * @param columns grid columns
+     */
+    public HeapPopulationStore(long size, int columns)
+    {
+        if (size < 0 || !fits(size, columns))
+        {
+            throw new IllegalArgumentException("Heap store size out of range: " + size);
+        }
+
+        this.size = size;
+        this.columns = Math.max(1, columns);
+        this.stride = this.columns + 2 * PADDING;
+
+        int rows = (int) ((size + this.columns - 1) / this.columns);
+        status = new byte[(rows + 2 * PADDING) * stride];
+        contagious = new byte[status.length];
+        vaccinated = new long[(int) ((size + 63) >>> 6)];
+
+        Arrays.fill(status, NOT_A_PERSON);
+
+        for (int row = 0; row < rows; row++)
+        {
+            long rowStart = (long) row * this.columns;
+            int width = (int) Math.min(this.columns, size - rowStart);
+            int start = (row + PADDING) * stride + PADDING;
+            Arrays.fill(status, start, start + width, HealthStatus.SUSCEPTIBLE.code());
+        }
+    }
+
+    /**
+     * Checks whether a padded grid for this many people fits in Java arrays
+     *
+     * @param size number of people
+     * @param columns grid columns
+     * @return true if a heap store can be created
+     */
+    public static boolean fits(long size, int columns)
+    {
+        long width = Math.max(1, columns);
+        long rows = (size + width - 1) / width;
+        return size <= MAX_SIZE && (rows + 2 * PADDING) * (width + 2 * PADDING) <= MAX_SIZE;
+    }
+
+    /**
+     * @return padded row length; moving one grid row is stride cells
+     */
+    public int getStride()
+    {
+        return stride;
+    }
+
+    /**
+     * Converts a person index to its cell in the padded grids
+     *
+     * @param index index of the person
+     * @return padded cell
+     */
+    public int paddedIndexOf(long index)
+    {
+        int row = (int) (index / columns);
+        int col = (int) (index - (long) row * columns);
+        return (row + PADDING) * stride + col + PADDING;
+    }
+
+    /**
+     * Gets the status code of a padded cell
+     *
+     * @param padded padded cell, within PADDING rows and columns of a person
+     * @return HealthStatus code, or NOT_A_PERSON for a ghost cell
+     */
+    public byte getPaddedStatus(int padded)
+    {
+        return status[padded];
+    }
+
+    /**
+     * Counts the contagious people in the neighborhood of a padded cell by
+     * summing the flags of every offset, the cell itself included (callers
+     * ask for susceptible people, who are never contagious). Ghost cells
+     * read as 0, so there are no bounds checks and the loops have constant
+     * bounds the JIT can unroll.
+     *
+     * @param padded padded cell of a person
+     * @return contagious people within NEIGHBORHOOD_RADIUS
+     */
+    public int countContagiousAround(int padded)
+    {
+        int count = 0;
+
+        for (int dr = -PADDING; dr <= PADDING; dr++)
+        {
+            int rowBase = padded + dr * stride;
+
+            for (int dc = -PADDING; dc <= PADDING; dc++)
+            {
+                count += contagious[rowBase + dc];
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public SpreadKernel getSpreadKernel()
+    {
+        return new PaddedSpreadKernel(this);
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public byte getStatus(long index)
+    {
+        return status[paddedIndexOf(index)];
+    }
+
+    @Override
+    public void setStatus(long index, byte value)
+    {
+        status[paddedIndexOf(index)] = value;
+    }
+
+    @Override
+    public boolean isVaccinated(long index)
+    {
+        return (vaccinated[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setVaccinated(long index)
+    {
+        vaccinated[(int) (index >>> 6)] |= 1L << index;
+    }
+
+    @Override
+    public boolean isContagious(long index)
+    {
+        return contagious[paddedIndexOf(index)] != 0;
+    }
+
+    @Override
+    public void setContagious(long index, boolean value)
+    {
+        contagious[paddedIndexOf(index)] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Counts statuses row by row, walking the padded grid without
+     * converting every index
+     */
+    @Override
+    public void countStatuses(long from, long to, long[] counts)
+    {
+        for (long rowStart = from - from % columns; rowStart < to; rowStart += columns)
+        {
+            long first = Math.max(from, rowStart);
+            long last = Math.min(Math.min(to, rowStart + columns), size);
+
+            if (first >= last)
+            {
+                continue;
+            }
+
+            int padded = paddedIndexOf(first);
+
+            for (long i = first; i < last; i++)
+            {
+                counts[status[padded++]]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import java.util.Arrays;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Builds the infection pressure of a ContactKernel one grid row at a time,
+ * at a cost per person that does not grow with the kernel's area.
+ * The contagious flags of the 2 * radius + 1 rows around the current row
+ * are kept in a ring of rows, with their counts per column. Moving down one
+ * row reads only the row entering the window from the population; it takes
+ * the ring slot of the row leaving it, whose flags are subtracted from the
+ * column counts as they are overwritten. A prefix sum of the column counts
+ * then gives the BOX count of any person in O(1). For weighted kernels the
+ * window's rows are first summed down the columns by row offset (O(radius))
+ * and the row pass weights those sums by column offset (O(radius), only for
+ * people asked about).
+ * Holds scratch arrays only, so one instance per stripe lets stripes run
+ * in parallel without allocating.
+ */
+
+// KernelPressure IS-A sliding-window infection pressure builder
+// KernelPressure HAS-A ring of window rows, column counts, their prefix sums and weighted column sums
+public class KernelPressure
+{
+    private byte[] window = new byte[0];            // contagious flags (0 or 1), row r in slot r mod height
+    private int[] columnCounts = new int[0];        // contagious people per column within the row window
+    private int[] prefix = new int[1];              // prefix[c] = sum of columnCounts before column c
+    private double[] columnPressure = new double[0]; // columnCounts weighted by row offset (weighted kernels)
+    private int columns;                             // grid columns of the current pass
+    private int radius;                              // radius of the current pass
+    private int height;                              // rows in the window, 2 * radius + 1
+
+    /**
+     * Starts a pass with the window centered on a row
+     *
+     * @param population population to read contagious flags from
+     * @param kernel contact kernel being applied
+     * @param row first row of the pass
+     */
+    public void begin(Population population, ContactKernel kernel, int row)
+    {
+        columns = population.getColumnCount();
+        radius = kernel.getRadius();
+        height = 2 * radius + 1;
+
+        if (columnCounts.length < columns)
+        {
+            columnCounts = new int[columns];
+            prefix = new int[columns + 1];
+            columnPressure = new double[columns];
+        }
+
+        if (window.length < height * columns)
+        {
+            window = new byte[height * columns];
+        }
+
+        Arrays.fill(columnCounts, 0, columns, 0);
+        Arrays.fill(window, 0, height * columns, (byte) 0);
+
+        for (int r = row - radius; r <= row + radius; r++)
+        {
+            loadRow(population, r);
+        }
+    }
+
+    /**
+     * Moves the window down to the given row, the one after the current one
+     *
+     * @param population population to read contagious flags from
+     * @param row new center row
+     */
+    public void advance(Population population, int row)
+    {
+        loadRow(population, row + radius); // takes the slot of row - radius - 1
+    }
+
+    /**
+     * Prepares the row pass for the current center row
+     *
+     * @param kernel contact kernel being applied
+     * @param row current center row
+     * @return false if nobody contagious is within reach of the row
+     */
+    public boolean prepareRow(ContactKernel kernel, int row)
+    {
+        for (int c = 0; c < columns; c++)
+        {
+            prefix[c + 1] = prefix[c] + columnCounts[c];
+        }
+
+        if (prefix[columns] == 0)
+        {
+            return false;
+        }
+
+        if (kernel.getShape() != KernelShape.BOX)
+        {
+            Arrays.fill(columnPressure, 0, columns, 0.0);
+
+            for (int dr = -radius; dr <= radius; dr++)
+            {
+                int slot = slotOf(row + dr);
+                double weight = kernel.getWeight(dr);
+
+                for (int c = 0; c < columns; c++)
+                {
+                    columnPressure[c] += weight * window[slot + c];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the contagious people within the kernel's box around a person
+     * of the current row
+     *
+     * @param column column of the person
+     * @return contagious people in reach, the person included
+     */
+    public int count(int column)
+    {
+        return prefix[Math.min(columns, column + radius + 1)] - prefix[Math.max(0, column - radius)];
+    }
+
+    /**
+     * Sums the weights of the contagious people around a person of the
+     * current row
+     *
+     * @param kernel contact kernel being applied
+     * @param column column of the person
+     * @return weighted number of contagious contacts
+     */
+    public double weighted(ContactKernel kernel, int column)
+    {
+        if (count(column) == 0)
+        {
+            return 0;
+        }
+
+        double pressure = 0;
+
+        for (int c = Math.max(0, column - radius); c <= Math.min(columns - 1, column + radius); c++)
+        {
+            pressure += kernel.getWeight(c - column) * columnPressure[c];
+        }
+        return pressure;
+    }
+
+    /**
+     * Reads one grid row's contagious flags into its ring slot, replacing
+     * the row that held the slot, and updates the column counts
+     *
+     * @param population population to read contagious flags from
+     * @param row grid row; rows outside the grid read as nobody contagious
+     */
+    private void loadRow(Population population, int row)
+    {
+        int slot = slotOf(row);
+        long rowStart = (long) row * columns;
+        int width = row < 0 || row >= population.getRowCount() ? 0 : (int) Math.min(columns, population.size() - rowStart);
+
+        for (int c = 0; c < columns; c++)
+        {
+            byte flag = (byte) (c < width && population.isContagious(rowStart + c) ? 1 : 0);
+            columnCounts[c] += flag - window[slot + c];
+            window[slot + c] = flag;
+        }
+    }
+
+    /**
+     * @param row grid row within the window
+     * @return offset of the row's slot in the ring
+     */
+    private int slotOf(int row)
+    {
+        return Math.floorMod(row, height) * columns;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents how a contact counts toward infection pressure by its distance.
+ */
+
+// KernelShape IS-A enumeration of contact kernel shapes
+public enum KernelShape
+{
+    BOX,       // every contact within the radius (in rows and columns) counts fully
+    GAUSSIAN   // contacts count less with distance, by a Gaussian of each offset
+}
@@ -0,0 +1,113 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Command-line benchmark of the pull spread kernel on each storage layout.
+ * Runs the same seeded Covid-19 epidemic, spread by PULL on one thread, on
+ * every layout given; the runs infect exactly the same people, so only the
+ * layout differs. The spread time of every day comes from its DayReport.
+ * Each layout is run several times after a warm-up run and the fastest run
+ * is reported, in milliseconds per day and relative to the first layout.
+ *
+ * Usage: java LayoutBenchmark [size] [days] [runs] [layout...]
+ */
+
+// LayoutBenchmark IS-A command-line spread benchmark
+// LayoutBenchmark HAS-A Controller per measured run
+public class LayoutBenchmark
+{
+    private static final int SEED_SPACING = 4_999;  // people between seeded infections
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args size, days, runs per layout and layout names, all optional
+     */
+    public static void main(String[] args)
+    {
+        long size = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        StorageMode[] layouts = { StorageMode.HEAP, StorageMode.TILED };
+
+        if (args.length > 3)
+        {
+            layouts = new StorageMode[args.length - 3];
+
+            for (int i = 3; i < args.length; i++)
+            {
+                layouts[i - 3] = StorageMode.valueOf(args[i]);
+            }
+        }
+
+        double baseline = 0;
+
+        for (StorageMode layout : layouts)
+        {
+            long best = Long.MAX_VALUE;
+
+            for (int run = 0; run <= runs; run++)
+            {
+                long nanos = spreadNanos(layout, size, days);
+
+                if (run > 0) // run 0 warms up the JIT
+                {
+                    best = Math.min(best, nanos);
+                }
+            }
+
+            double perDay = best / 1e6 / days;
+
+            if (baseline == 0)
+            {
+                baseline = perDay;
+            }
+            System.out.printf("%-10s %10.2f ms/day  %5.2fx%n", layout, perDay, baseline / perDay);
+        }
+    }
+
+    /**
+     * Runs one epidemic and adds up the time spent spreading it
+     *
+     * @param layout storage mode of the population
+     * @param size number of people
+     * @param days days to run
+     * @return total spread time in nanoseconds
+     */
+    private static long spreadNanos(StorageMode layout, long size, int days)
+    {
+        SimulationConfig config = new SimulationConfig();
+        config.getPopulation().setStorageMode(layout);
+        config.getPopulation().setSize(size);
+        config.setDisease(new Covid19());
+        config.maxDays = days;
+        config.parallelism = 1;
+        config.spreadMode = SpreadMode.PULL;
+        config.statisticsCapacity = 64;
+        config.seed = 42;
+
+        Controller controller = new Controller();
+        controller.applyConfig(config);
+        Population population = controller.getPopulation();
+
+        for (long cell = 0; cell < population.size(); cell += SEED_SPACING)
+        {
+            population.infect(cell, controller.getDisease());
+        }
+
+        long nanos = 0;
+        boolean running = true;
+
+        while (running)
+        {
+            running = controller.step();
+            nanos += controller.getLastReport().getSpreadNanos();
+        }
+
+        controller.getStatistics().close();
+        return nanos;
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents one growable column of primitive long values, such as one
+ * daily statistic. Values are kept in a single long array, so recording a
+ * value allocates nothing until the array has to grow.
+ * Readers get a read-only List view backed by the same array (no copy).
+ * A full column can also be rolled, keeping its newest values by using
+ * the array as a ring.
+ */
+
+// LongColumn IS-A growable primitive column
+// LongColumn HAS-A long array of values, a ring start and a size
+public class LongColumn
+{
+    private long[] values;              // values, valid for size positions from head
+    private int head;                   // position of the first value in the array
+    private int size;                   // number of values in the column
+    private final List<Long> view;      // read-only view over values
+
+    /**
+     * Constructs an empty column with a small initial capacity
+     */
+    public LongColumn()
+    {
+        this(64); // default capacity set here
+    }
+
+    /**
+     * Constructs an empty column with the given initial capacity
+     *
+     * @param capacity number of values that fit without growing
+     */
+    public LongColumn(int capacity)
+    {
+        values = new long[Math.max(1, capacity)];
+        size = 0;
+        view = new ReadOnlyView();
+    }
+
+    /**
+     * Appends a value, doubling the array when it is full
+     *
+     * @param value value to append
+     */
+    public void add(long value)
+    {
+        unroll();
+
+        if (size == values.length)
+        {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Appends a value to a full column by dropping its first value, so the
+     * column keeps its size and holds the newest values; the array is used
+     * as a ring, so nothing is copied
+     *
+     * @param value value to append
+     * @return the value dropped from the front
+     */
+    public long roll(long value)
+    {
+        if (size < values.length)
+        {
+            throw new IllegalStateException("Only a full column can be rolled");
+        }
+
+        long dropped = values[head];
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        return dropped;
+    }
+
+    /**
+     * Returns the value at a position
+     *
+     * @param index position in the column
+     * @return value at index
+     */
+    public long get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        int position = head + index;
+        return values[position < values.length ? position : position - values.length];
+    }
+
+    /**
+     * Returns the last value, or a default for an empty column
+     *
+     * @param empty value returned when the column is empty
+     * @return last value or empty
+     */
+    public long getLast(long empty)
+    {
+        return size == 0 ? empty : get(size - 1);
+    }
+
+    /**
+     * @return number of values in the column
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Removes every value, keeping the array for reuse
+     */
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Halves the resolution of the first values of the column: of the
+     * values before end, only those at even positions are kept, and the
+     * values from end onwards move down to follow them.
+     *
+     * @param end number of leading values to thin
+     * @return number of values removed
+     */
+    public int thin(int end)
+    {
+        unroll();
+        end = Math.min(end, size);
+        int kept = 0;
+
+        for (int i = 0; i < end; i += 2)
+        {
+            values[kept++] = values[i];
+        }
+
+        System.arraycopy(values, end, values, kept, size - end);
+        int removed = end - kept;
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Moves the first values of the column into an array; the remaining
+     * values move down to the front
+     *
+     * @param count number of leading values to remove
+     * @param into array receiving the removed values, at least count long
+     */
+    public void removeFirst(int count, long[] into)
+    {
+        unroll();
+        count = Math.min(count, size);
+        System.arraycopy(values, 0, into, 0, count);
+        System.arraycopy(values, count, values, 0, size - count);
+        size -= count;
+    }
+
+    /**
+     * Moves the values of a rolled column back to the front of the array
+     */
+    private void unroll()
+    {
+        if (head != 0)
+        {
+            long[] ordered = new long[values.length];
+            System.arraycopy(values, head, ordered, 0, values.length - head);
+            System.arraycopy(values, 0, ordered, values.length - head, head);
+            values = ordered;
+            head = 0;
+        }
+    }
+
+    /**
+     * Returns a read-only view of the column
+     * The view reads the live column, so it follows later additions
+     *
+     * @return unmodifiable list backed by the column
+     */
+    public List<Long> asList()
+    {
+        return view;
+    }
+
+    // ReadOnlyView IS-A read-only List over the column's array
+    private class ReadOnlyView extends AbstractList<Long> implements RandomAccess
+    {
+        @Override
+        public Long get(int index)
+        {
+            return LongColumn.this.get(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Provides a fixed-length array of primitive elements stored outside the Java heap.
+ * Elements are addressed by a long index and spread over direct ByteBuffer chunks,
+ * so the array can be larger than the 2 GB limit of a single buffer or Java array.
+ * Direct memory is capped by -XX:MaxDirectMemorySize, which must be raised for
+ * very large arrays.
+ */
+
+// OffHeapArray IS-A long-indexed primitive array
+// OffHeapArray HAS-A list of direct ByteBuffer chunks and an element width
+public class OffHeapArray
+{
+    private static final int CHUNK_SHIFT = 30;                  // 1 GB per chunk
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final ByteBuffer[] chunks;   // direct buffers holding the elements
+    private final long length;           // number of elements
+    private final int shift;             // log2 of the element width in bytes
+
+    /**
+     * Allocates a zero-filled off-heap array
+     *
+     * @param length number of elements
+     * @param elementBytes width of each element in bytes (1, 2, 4 or 8)
+     */
+    public OffHeapArray(long length, int elementBytes)
+    {
+        if (length < 0)
+        {
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        }
+
+        if (elementBytes != 1 && elementBytes != 2 && elementBytes != 4 && elementBytes != 8)
+        {
+            throw new IllegalArgumentException("Element width must be 1, 2, 4 or 8 bytes: " + elementBytes);
+        }
+
+        this.length = length;
+        this.shift = Integer.numberOfTrailingZeros(elementBytes);
+
+        long totalBytes = length << shift;
+        int chunkCount = (int) ((totalBytes + CHUNK_MASK) >>> CHUNK_SHIFT);
+        chunks = new ByteBuffer[chunkCount];
+
+        for (int c = 0; c < chunkCount; c++)
+        {
+            long chunkBytes = Math.min(1L << CHUNK_SHIFT, totalBytes - ((long) c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect((int) chunkBytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Returns the number of elements
+     *
+     * @return array length
+     */
+    public long length()
+    {
+        return length;
+    }
+
+    // -------------------------
+    // Element access (index counts elements, not bytes)
+    // -------------------------
+    public byte getByte(long index)
+    {
+        long offset = index << shift;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].get((int) (offset & CHUNK_MASK));
+    }
+
+    public void putByte(long index, byte value)
+    {
+        long offset = index << shift;
+        chunks[(int) (offset >>> CHUNK_SHIFT)].put((int) (offset & CHUNK_MASK), value);
+    }
+
+    public short getShort(long index)
+    {
+        long offset = index << shift;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getShort((int) (offset & CHUNK_MASK));
+    }
+
+    public void putShort(long index, short value)
+    {
+        long offset = index << shift;
+        chunks[(int) (offset >>> CHUNK_SHIFT)].putShort((int) (offset & CHUNK_MASK), value);
+    }
+
+    public int getInt(long index)
+    {
+        long offset = index << shift;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getInt((int) (offset & CHUNK_MASK));
+    }
+
+    public void putInt(long index, int value)
+    {
+        long offset = index << shift;
+        chunks[(int) (offset >>> CHUNK_SHIFT)].putInt((int) (offset & CHUNK_MASK), value);
+    }
+
+    public long getLong(long index)
+    {
+        long offset = index << shift;
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    public void putLong(long index, long value)
+    {
+        long offset = index << shift;
+        chunks[(int) (offset >>> CHUNK_SHIFT)].putLong((int) (offset & CHUNK_MASK), value);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Stores population state in direct memory outside the Java heap.
+ * Holds a byte status column and vaccinated and contagious bitsets, each an
+ * OffHeapArray addressed by long, so country-scale grids need neither a
+ * multi-GB heap nor garbage collection of their state.
+ * Flags are set by a read-modify-write of a whole 64-bit word, so stripe
+ * borders are aligned to start on a word: no two stripes share one.
+ */
+
+// OffHeapPopulationStore IS-A PopulationStore
+// OffHeapPopulationStore HAS-A off-heap status, vaccinated and contagious columns, grid columns
+public class OffHeapPopulationStore implements PopulationStore
+{
+    private final long size;                        // number of people
+    private final int columns;                      // grid columns
+    private final OffHeapArray status;              // HealthStatus code per person
+    private final OffHeapArray vaccinated;          // bitset words, one bit per person
+    private final OffHeapArray contagious;          // bitset words, one bit per person
+
+    /**
+     * Allocates the off-heap columns for a population
+     * Direct memory is zero-filled, so every person starts SUSCEPTIBLE and unvaccinated
+     *
+     * @param size number of people
+     * @param columns grid columns
+     */
+    public OffHeapPopulationStore(long size, int columns)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Store size must not be negative: " + size);
+        }
+
+        this.size = size;
+        this.columns = Math.max(1, columns);
+        status = new OffHeapArray(size, 1);
+        vaccinated = new OffHeapArray((size + 63) >>> 6, 8);
+        contagious = new OffHeapArray((size + 63) >>> 6, 8);
+    }
+
+    /**
+     * Stripes must start on a whole bitset word, so that every flag word is
+     * written by a single thread: the fewest rows whose people fill whole
+     * 64-bit words
+     */
+    @Override
+    public int getRowAlignment()
+    {
+        return 64 / (1 << Math.min(6, Integer.numberOfTrailingZeros(columns)));
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public byte getStatus(long index)
+    {
+        return status.getByte(index);
+    }
+
+    @Override
+    public void setStatus(long index, byte value)
+    {
+        status.putByte(index, value);
+    }
+
+    @Override
+    public boolean isVaccinated(long index)
+    {
+        return (vaccinated.getLong(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setVaccinated(long index)
+    {
+        long word = index >>> 6;
+        vaccinated.putLong(word, vaccinated.getLong(word) | (1L << index));
+    }
+
+    @Override
+    public boolean isContagious(long index)
+    {
+        return (contagious.getLong(index >>> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public void setContagious(long index, boolean value)
+    {
+        long word = index >>> 6;
+        long bits = contagious.getLong(word);
+        contagious.putLong(word, value ? bits | (1L << index) : bits & ~(1L << index));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Runs the push and pull scans over a HeapPopulationStore's padded grid.
+ * The store's ghost border means every offset around a person is a valid
+ * cell, and ghost cells are never SUSCEPTIBLE or contagious, so each
+ * neighbor costs one array read and no bounds checks. Targets, draws and
+ * their order are the same as the generic scans.
+ */
+
+// PaddedSpreadKernel IS-A SpreadKernel
+// PaddedSpreadKernel HAS-A HeapPopulationStore it reads
+public class PaddedSpreadKernel extends SpreadKernel
+{
+    private final HeapPopulationStore store;    // padded store of the population
+
+    /**
+     * Constructs the kernel of a store
+     *
+     * @param store padded heap store of the population
+     */
+    public PaddedSpreadKernel(HeapPopulationStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Pushes from the stripe's contagious people. The source itself is
+     * CONTAGIOUS, so the zero offset needs no special case.
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the contagious sources
+     * @param above receives targets in the previous stripe
+     * @param own receives targets in this stripe
+     * @param below receives targets in the next stripe
+     */
+    @Override
+    public void push(Population population, Disease disease, int stripe, CellList above, CellList own, CellList below)
+    {
+        int cols = population.getColumnCount();
+        int stride = store.getStride();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        CellList sources = population.getActiveCells(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        double rate = disease.getInfectionRate();
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+
+        for (int i = 0; i < sources.size(); i++)
+        {
+            long source = sources.get(i);
+
+            if (!store.isContagious(source))
+            {
+                continue;
+            }
+
+            int padded = store.paddedIndexOf(source);
+            int direction = 0;
+
+            for (int dr = -Disease.NEIGHBORHOOD_RADIUS; dr <= Disease.NEIGHBORHOOD_RADIUS; dr++)
+            {
+                int paddedRow = padded + dr * stride;
+                long targetRow = source + (long) dr * cols;
+
+                for (int dc = -Disease.NEIGHBORHOOD_RADIUS; dc <= Disease.NEIGHBORHOOD_RADIUS; dc++, direction++)
+                {
+                    if (store.getPaddedStatus(paddedRow + dc) == susceptible)
+                    {
+                        long target = targetRow + dc;
+
+                        if (random.uniform(day, target, CounterRng.INFECTION + direction) < rate)
+                        {
+                            (target < stripeStart ? above : target >= stripeEnd ? below : own).add(target);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pulls into the stripe's susceptible people, walking the stripe row by
+     * row through the padded grid, so each person costs a status read and,
+     * if susceptible, one branch-free sum over the neighborhood
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     */
+    @Override
+    public void pull(Population population, Disease disease, int stripe, CellList own)
+    {
+        int cols = population.getColumnCount();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+
+        long rowEnd;
+
+        for (long rowStart = stripeStart; rowStart < stripeEnd; rowStart = rowEnd)
+        {
+            rowEnd = Math.min(rowStart - rowStart % cols + cols, stripeEnd);
+            int padded = store.paddedIndexOf(rowStart);
+
+            for (long cell = rowStart; cell < rowEnd; cell++, padded++)
+            {
+                if (store.getPaddedStatus(padded) == susceptible
+                    && disease.catchesByPressure(population, cell, store.countContagiousAround(padded)))
+                {
+                    own.add(cell);
+                }
+            }
+        }
+    }
+}
@@ -10,37 +10,37 @@
  * 
  * Responsibilities of class:
  * Represents a person in the simulation.
- * Tracks health state, vaccination status, and disease progression.
+ * Acts as a lightweight view onto one index of a Population, which stores
+ * the health state, vaccination status, and disease progression.
  */
 
-// Person IS-A individual in the simulation
-// Person HAS-A HealthStatus, vaccinated flag, infection and contagious counters
+// Person IS-A view of an individual in the simulation
+// Person HAS-A Population and the index of the person within it
 public class Person
 {
-    private final int id;                     // unique identifier
-    private HealthStatus status;              // current health state
-    private boolean vaccinated;               // whether person is vaccinated
-
-    private int daysInfected;                 // counter of days infected
-    private int daysContagious;               // counter of days contagious
-    private int recoveryDuration;             // total days infected
-    private int contagiousDuration;           // total days contagious
+    private final Population population;      // population holding this person's state
+    private final long id;                    // unique identifier (index in population)
 
     /**
-     * Constructs a Person with a unique ID
-     * Initializes status to SUSCEPTIBLE and vaccination to false
+     * Constructs a Person view for an index of a population
      * 
-     * @param id unique identifier for the person
+     * @param population population holding the person's state
+     * @param id unique identifier (index) of the person
      */
-    public Person(int id)
+    public Person(Population population, long id)
     {
+        this.population = population;
         this.id = id;
-        this.status = HealthStatus.SUSCEPTIBLE;
-        this.vaccinated = false;
-        this.daysInfected = 0;
-        this.daysContagious = 0;
-        this.recoveryDuration = 0;
-        this.contagiousDuration = 0;
+    }
+
+    /**
+     * Returns the unique identifier of the person
+     * 
+     * @return index of the person in its population
+     */
+    public long getId()
+    {
+        return id;
     }
 
     /**
@@ -50,7 +50,7 @@ public class Person
      */
     public HealthStatus getHealthStatus()
     {
-        return status;
+        return population.getHealthStatus(id);
     }
 
     /**
@@ -60,7 +60,7 @@ public class Person
      */
     public boolean isVaccinated()
     {
-        return vaccinated;
+        return population.isVaccinated(id);
     }
 
     /**
@@ -69,11 +69,7 @@ public class Person
      */
     public void vaccinate()
     {
-        vaccinated = true;
-        if (status == HealthStatus.SUSCEPTIBLE)
-        {
-            status = HealthStatus.VACCINATED;
-        }
+        population.vaccinate(id);
     }
 
     /**
@@ -83,7 +79,7 @@ public class Person
      */
     public boolean isInfected()
     {
-        return status == HealthStatus.INFECTED || status == HealthStatus.CONTAGIOUS;
+        return population.isInfected(id);
     }
 
     /**
@@ -91,25 +87,18 @@ public class Person
      */
     public void setDead()
     {
-        status = HealthStatus.DEAD;
+        population.setDead(id);
     }
 
     /**
      * Infects a susceptible person with the given disease
-     * Initializes recovery and contagious durations and resets counters
+     * Samples the durations and day of death and schedules the transitions
      * 
      * @param disease Disease instance to infect the person
      */
     public void infect(Disease disease)
     {
-        if (status == HealthStatus.SUSCEPTIBLE)
-        {
-            status = HealthStatus.INFECTED;
-            recoveryDuration = disease.randomRecoveryDays();
-            contagiousDuration = disease.randomContagiousDays();
-            daysInfected = 0;
-            daysContagious = 0;
-        }
+        population.infect(id, disease);
     }
 
     /**
@@ -119,43 +108,6 @@ public class Person
      */
     public boolean isContagious()
     {
-        return status == HealthStatus.INFECTED && daysInfected >= 1
-               || status == HealthStatus.CONTAGIOUS;
-    }
-
-    /**
-     * Progresses the person's infection by one day
-     * Updates status from INFECTED → CONTAGIOUS → RECOVERED as appropriate
-     * 
-     * @param disease Disease instance being tracked (used for progression rules)
-     */
-    public void progressDay(Disease disease)
-    {
-        switch (status)
-        {
-            case INFECTED:
-                daysInfected++;
-
-                // Check if infection duration is complete → move to CONTAGIOUS
-                if (daysInfected >= recoveryDuration)
-                {
-                    status = HealthStatus.CONTAGIOUS;
-                    daysContagious = 0; // reset contagious counter
-                }
-                break;
-
-            case CONTAGIOUS:
-                daysContagious++;
-
-                // Check if contagious duration is complete → move to RECOVERED
-                if (daysContagious >= contagiousDuration)
-                {
-                    status = HealthStatus.RECOVERED;
-                }
-                break;
-
-            default:
-                break; // SUSCEPTIBLE, RECOVERED, VACCINATED, DEAD do nothing
-        }
+        return population.isContagious(id);
     }
 }
@@ -1,27 +1,76 @@
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Lead Author(s):
  * @author Joseph Roberts
- * 
+ *
  * References:
  * Morelli, R., & Walde, R. (2016). Java, Java, Java: Object-Oriented Problem Solving.
  * Retrieved from https://open.umn.edu/opentextbooks/textbooks/java-java-java-object-oriented-problem-solving
- * 
+ *
  * Version/date: 11/21/2025
- * 
+ *
  * Responsibilities of class:
- * Represents a collection of Person objects in the simulation.
- * Manages population size and provides layout information for visualization.
+ * Represents the people in the simulation.
+ * Applies state changes to each person's health state, which is kept in a
+ * PopulationStore (on or off the Java heap, sparse in chunks that are
+ * only allocated once an outbreak reaches them, or in Z-ordered tiles).
+ * Keeps an index of the currently infected people so spreading only visits
+ * the active part of the epidemic. Every infection's future transitions are
+ * scheduled in a timing wheel when it starts, so the daily update only
+ * handles the people whose state changes that day. The grid is split into
+ * row stripes, each with its own index and wheel, so stripes can be
+ * processed in parallel.
+ * Every status change goes through this class, which keeps per-stripe
+ * counts of each status and of people eligible for vaccination up to date,
+ * so totals are available without scanning the population.
+ * While change tracking is on, each stripe also lists the people whose
+ * status changed, so a display can redraw only those people; a list that
+ * grows past a sixteenth of its stripe is dropped and reported as
+ * incomplete, since redrawing everything is cheaper by then.
+ * A population too large to draw person by person can also keep a
+ * DensityGrid of status counts per square tile, updated on every change;
+ * stripes are then aligned to the tile height so a tile has one writer.
+ * Provides layout information for visualization.
+ * Person objects are lightweight views onto a single index of the store.
  */
 
-// Population IS-A collection of Person objects
-// Population HAS-A list of Person and size
+// Population IS-A collection of people addressed by a long index
+// Population HAS-A PopulationStore, StorageMode, active cell index, TimingWheels, status counters, CounterRng, current day and size
 public class Population
 {
-    private List<Person> people;     // list of persons in the simulation
-    private int size;                 // total number of people
+    /** Sizes above this use off-heap storage when the mode is AUTO */
+    public static final long OFF_HEAP_THRESHOLD = 50_000_000L;
+
+    // Scheduled transitions, packed as (cell << EVENT_BITS) | event
+    private static final int EVENT_BITS = 2;
+    private static final int ONSET = 0;           // INFECTED person becomes able to spread
+    private static final int BECOME_CONTAGIOUS = 1; // INFECTED -> CONTAGIOUS
+    private static final int RECOVER = 2;         // CONTAGIOUS -> RECOVERED
+    private static final int DIE = 3;             // INFECTED or CONTAGIOUS -> DEAD
+
+    private long size;                    // total number of people
+    private int columns;                  // grid columns for the current size
+    private StorageMode storageMode;      // requested storage backend
+    private PopulationStore store;        // per-person state columns
+    private int stripeRows;               // grid rows per stripe
+    private CellList[] activeCells;       // infected people per stripe, pruned lazily
+    private int[] retiredCells;           // active cells per stripe that died or recovered since the last prune
+    private TimingWheel[] schedules;      // scheduled transitions per stripe
+    private long[][] statusCounts;        // [stripe][HealthStatus code] people per status
+    private long[] eligibleCounts;        // [stripe] people alive and unvaccinated
+    private EligibleIndex eligibleIndex;  // people to draw vaccine doses from, built on first use
+    private boolean eligibleIndexFailed;  // true if direct memory could not hold the eligible index
+    private CounterRng random;            // random source for state changes
+    private int day;                      // simulation day of the current state changes
+    private boolean trackingChanges;      // true if status changes are listed per stripe
+    private CellList[] changedCells;      // [stripe] people whose status changed since the last drain
+    private boolean[] changesDropped;     // [stripe] true if changes were missed since the last drain
+    private DensityGrid densityGrid;      // status counts per tile, or null if not kept
+    private int requestedStripes = 1;     // stripe count last asked for by setStripeCount
+    private int stripeMinRows = 1;        // minimum stripe height last asked for by setStripeCount
 
     /**
      * Constructs a default Population of 10,000 people
@@ -33,79 +82,962 @@ public class Population
 
     /**
      * Constructs a Population of a specified size
-     * Initializes all Person objects
-     * 
+     * Initializes all people to SUSCEPTIBLE
+     *
      * @param size the number of people in the population
      */
-    public Population(int size)
+    public Population(long size)
     {
         this.size = Math.max(0, size);
+        this.storageMode = StorageMode.AUTO;
+        this.random = new CounterRng(System.nanoTime());
+        this.day = 0;
         initializePeople();
     }
 
     /**
-     * Initializes the list of Person objects based on the current size
+     * Allocates a fresh store for the current size and storage mode
+     * Every person starts SUSCEPTIBLE and unvaccinated, with nothing scheduled
      */
     private void initializePeople()
     {
-        people = new ArrayList<>(Math.max(0, size));
-        for (int i = 0; i < size; i++)
+        store = null; // release the previous store before allocating the next one
+        columns = (int) Math.ceil(Math.sqrt((double) size));
+        stripeRows = Math.max(1, getRowCount());
+        activeCells = new CellList[] { new CellList() };
+        retiredCells = new int[1];
+        schedules = new TimingWheel[] { new TimingWheel(0) };
+        statusCounts = new long[1][HealthStatus.values().length];
+        statusCounts[0][HealthStatus.SUSCEPTIBLE.code()] = size;
+        eligibleCounts = new long[] { size };
+        eligibleIndex = null;
+        eligibleIndexFailed = false;
+        resetChangedCells(1);
+
+        if (usesOffHeap())
+        {
+            store = new OffHeapPopulationStore(size, columns);
+        }
+        else if (storageMode == StorageMode.BIT_PACKED)
+        {
+            store = new BitPlaneStore(size, columns);
+        }
+        else if (storageMode == StorageMode.SPARSE)
+        {
+            store = new ChunkedPopulationStore(size, columns);
+        }
+        else if (storageMode == StorageMode.TILED)
+        {
+            store = new TiledPopulationStore(size, columns);
+        }
+        else
+        {
+            store = new HeapPopulationStore(size, columns);
+        }
+
+        if (densityGrid != null)
+        {
+            densityGrid.build(store, size, columns, densityGrid.getShift());
+        }
+    }
+
+    /**
+     * Decides whether the current size and mode call for off-heap storage
+     *
+     * @return true if the store should live outside the Java heap
+     */
+    private boolean usesOffHeap()
+    {
+        switch (storageMode)
         {
-            people.add(new Person(i));
+            case HEAP:
+                return !HeapPopulationStore.fits(size, columns);
+            case BIT_PACKED:
+                return size > HeapPopulationStore.MAX_SIZE;
+            case TILED:
+                return !TiledPopulationStore.fits(size, columns);
+            case OFF_HEAP:
+                return true;
+            case SPARSE:
+                return false;
+            default:
+                return size > OFF_HEAP_THRESHOLD;
         }
     }
 
     /**
-     * Retrieves the list of Person objects
-     * 
+     * Retrieves a read-only list of Person views over the population
+     * Views are created on access, so prefer the index-based methods in loops
+     *
      * @return list of persons in the population
+     * @throws UnsupportedOperationException if the population exceeds the int range
      */
     public List<Person> getPeople()
     {
-        return people;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new UnsupportedOperationException("Population too large for a List view: " + size);
+        }
+
+        return new AbstractList<Person>()
+        {
+            @Override
+            public Person get(int index)
+            {
+                return getPerson(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return (int) size;
+            }
+        };
+    }
+
+    /**
+     * Returns a Person view for the given index
+     *
+     * @param index index of the person
+     * @return Person view backed by this population
+     */
+    public Person getPerson(long index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Person index " + index + " out of range for size " + size);
+        }
+
+        return new Person(this, index);
     }
 
     /**
      * Returns the number of people in the population
-     * 
+     *
      * @return current population size
      */
-    public int size()
+    public long size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the storage mode requested for this population
+     *
+     * @return storage mode
+     */
+    public StorageMode getStorageMode()
+    {
+        return storageMode;
+    }
+
+    /**
+     * Sets the storage mode used the next time the population is (re)initialized
+     * Ignores null
+     *
+     * @param mode requested storage backend
+     */
+    public void setStorageMode(StorageMode mode)
     {
-        return people.size();
+        if (mode != null)
+        {
+            this.storageMode = mode;
+        }
+    }
+
+    /**
+     * Checks whether the people are currently stored outside the Java heap
+     *
+     * @return true if an off-heap store is in use
+     */
+    public boolean isOffHeap()
+    {
+        return store instanceof OffHeapPopulationStore;
+    }
+
+    /**
+     * Returns the random source used for state changes
+     *
+     * @return counter-based random source
+     */
+    public CounterRng getRandom()
+    {
+        return random;
+    }
+
+    /**
+     * Sets the random source used for state changes
+     * Ignores null
+     *
+     * @param random counter-based random source
+     */
+    public void setRandom(CounterRng random)
+    {
+        if (random != null)
+        {
+            this.random = random;
+        }
+    }
+
+    /**
+     * Returns the simulation day that state changes are currently made for
+     *
+     * @return current day
+     */
+    public int getDay()
+    {
+        return day;
+    }
+
+    /**
+     * Sets the simulation day that state changes are made for
+     * Random draws are keyed by this day
+     *
+     * @param day current day
+     */
+    public void setDay(int day)
+    {
+        this.day = day;
     }
 
     /**
      * Calculates the number of columns for grid layout
      * Used for visualizing population in a square-ish grid
-     * 
+     *
      * @return number of columns
      */
     public int getColumnCount()
     {
-        return (int) Math.ceil(Math.sqrt(people.size()));
+        return columns;
     }
 
     /**
      * Calculates the number of rows for grid layout
      * Used for visualizing population in a square-ish grid
-     * 
+     *
      * @return number of rows
      */
     public int getRowCount()
     {
-        int cols = getColumnCount();
-        return (int) Math.ceil((double) people.size() / cols);
+        return columns == 0 ? 0 : (int) ((size + columns - 1) / columns);
     }
 
     /**
-     * Sets a new population size and re-initializes all Person objects
-     * 
+     * Sets a new population size and re-initializes all people
+     *
      * @param newSize new size of the population
      */
-    public void setSize(int newSize)
+    public void setSize(long newSize)
     {
+        long previousSize = size;
         this.size = Math.max(0, newSize);
-        initializePeople();
+
+        try
+        {
+            initializePeople();
+        }
+        catch (OutOfMemoryError ex)
+        {
+            // keep a usable population at the previous size
+            size = previousSize;
+            initializePeople();
+            throw ex;
+        }
+    }
+
+    /**
+     * Splits the grid into horizontal stripes of whole rows, a multiple of
+     * the store's row alignment high
+     * Active cells and scheduled transitions are redistributed, so this can
+     * be called at any time
+     *
+     * @param requestedStripes desired number of stripes
+     * @param minRows minimum rows per stripe
+     */
+    public void setStripeCount(int requestedStripes, int minRows)
+    {
+        this.requestedStripes = requestedStripes;
+        this.stripeMinRows = minRows;
+
+        int rows = getRowCount();
+        int stripes = Math.max(1, requestedStripes);
+        int alignment = Math.max(store.getRowAlignment(), densityGrid == null ? 1 : 1 << densityGrid.getShift());
+        int newStripeRows = Math.max(Math.max(1, minRows), (rows + stripes - 1) / stripes);
+        newStripeRows = (newStripeRows + alignment - 1) / alignment * alignment;
+        int newStripeCount = Math.max(1, (rows + newStripeRows - 1) / newStripeRows);
+
+        CellList[] previous = activeCells;
+        TimingWheel[] previousSchedules = schedules;
+        int wheelDay = schedules[0].getDay();
+        stripeRows = newStripeRows;
+        activeCells = new CellList[newStripeCount];
+        retiredCells = new int[newStripeCount];
+        schedules = new TimingWheel[newStripeCount];
+
+        for (int s = 0; s < newStripeCount; s++)
+        {
+            activeCells[s] = new CellList();
+            schedules[s] = new TimingWheel(wheelDay);
+        }
+
+        for (CellList list : previous)
+        {
+            for (int i = 0; i < list.size(); i++)
+            {
+                long cell = list.get(i);
+
+                if (isInfected(cell))
+                {
+                    activeCells[getStripeOf(cell)].add(cell);
+                }
+            }
+        }
+
+        for (TimingWheel wheel : previousSchedules)
+        {
+            wheel.forEachPending((delay, event) ->
+                schedules[getStripeOf(event >>> EVENT_BITS)].schedule(delay, event));
+        }
+
+        statusCounts = new long[newStripeCount][HealthStatus.values().length];
+        eligibleCounts = new long[newStripeCount];
+
+        for (int s = 0; s < newStripeCount; s++)
+        {
+            store.countStatuses(getStripeStart(s), getStripeEnd(s), statusCounts[s]);
+            eligibleCounts[s] = store.countEligible(getStripeStart(s), getStripeEnd(s));
+        }
+
+        resetChangedCells(newStripeCount);
+    }
+
+    /**
+     * Starts or stops keeping status counts per square tile
+     * Starting asks the store for everyone who is not SUSCEPTIBLE (a sparse
+     * store only walks its allocated chunks) and re-aligns the stripes to
+     * the tile height. Must not run while stripes are being stepped.
+     *
+     * @param shift log2 of the tile side in people (0 to 15), or -1 to stop
+     */
+    public void setDensityShift(int shift)
+    {
+        int current = densityGrid == null ? -1 : densityGrid.getShift();
+
+        if (shift == current)
+        {
+            return;
+        }
+
+        if (shift < 0)
+        {
+            densityGrid = null;
+            return;
+        }
+
+        DensityGrid grid = densityGrid == null ? new DensityGrid() : densityGrid;
+        grid.build(store, size, columns, Math.min(shift, 15));
+        densityGrid = grid;
+
+        if ((stripeRows & ((1 << grid.getShift()) - 1)) != 0)
+        {
+            setStripeCount(requestedStripes, stripeMinRows);
+        }
+    }
+
+    /**
+     * Returns the status counts per tile, if they are being kept
+     *
+     * @return the density grid, or null
+     */
+    public DensityGrid getDensityGrid()
+    {
+        return densityGrid;
+    }
+
+    /**
+     * Turns listing of status changes on or off
+     * Changes made before tracking starts are reported as missed
+     *
+     * @param tracking true to list every status change per stripe
+     */
+    public void setChangeTracking(boolean tracking)
+    {
+        if (tracking != trackingChanges)
+        {
+            trackingChanges = tracking;
+            resetChangedCells(getStripeCount());
+        }
+    }
+
+    /**
+     * Checks if status changes are being listed
+     *
+     * @return true while change tracking is on
+     */
+    public boolean isTrackingChanges()
+    {
+        return trackingChanges;
+    }
+
+    /**
+     * Moves the people whose status changed since the last drain into a
+     * list and starts new change lists. A person may be listed more than
+     * once. Must not run while stripes are being stepped.
+     *
+     * @param changed receives the changed people (cleared first)
+     * @return true if every change was listed, false if some were missed
+     *         (tracking was off, the lists overflowed or the grid was re-initialized)
+     */
+    public boolean drainChangedCells(CellList changed)
+    {
+        changed.clear();
+        boolean complete = trackingChanges;
+
+        for (int s = 0; s < changedCells.length; s++)
+        {
+            CellList list = changedCells[s];
+
+            for (int i = 0; i < list.size(); i++)
+            {
+                changed.add(list.get(i));
+            }
+
+            list.clear();
+            complete &= !changesDropped[s];
+            changesDropped[s] = false;
+        }
+        return complete;
+    }
+
+    /**
+     * Starts empty change lists for a number of stripes; every stripe
+     * reports its changes as missed until the next drain
+     *
+     * @param stripes number of stripes
+     */
+    private void resetChangedCells(int stripes)
+    {
+        changedCells = new CellList[trackingChanges ? stripes : 0];
+        changesDropped = new boolean[changedCells.length];
+
+        for (int s = 0; s < changedCells.length; s++)
+        {
+            changedCells[s] = new CellList();
+            changesDropped[s] = true;
+        }
+    }
+
+    /**
+     * Lists a status change in its stripe's change list, or marks the list
+     * as incomplete once it outgrows a sixteenth of the stripe
+     *
+     * @param index index of the person
+     * @param stripe stripe of the person
+     */
+    private void recordChange(long index, int stripe)
+    {
+        if (changesDropped[stripe])
+        {
+            return;
+        }
+
+        CellList list = changedCells[stripe];
+
+        if (list.size() >= Math.max(64, (getStripeEnd(stripe) - getStripeStart(stripe)) >>> 4))
+        {
+            changesDropped[stripe] = true;
+            list.clear();
+            return;
+        }
+
+        list.add(index);
+    }
+
+    /**
+     * Returns the store holding the per-person columns
+     * Used by kernels that work directly on a store's layout
+     *
+     * @return the current store
+     */
+    public PopulationStore getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Adds the number of people per status code in [from, to) to counts
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param counts running totals indexed by HealthStatus code
+     */
+    public void countStatuses(long from, long to, long[] counts)
+    {
+        store.countStatuses(from, to, counts);
+    }
+
+    /**
+     * Counts people in [from, to) who are alive and unvaccinated
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @return number of people eligible for vaccination
+     */
+    public long countEligible(long from, long to)
+    {
+        return store.countEligible(from, to);
+    }
+
+    /**
+     * Returns the number of people per status, from the incremental counters
+     * Costs one addition per stripe and status, not a scan
+     *
+     * @return counts indexed by HealthStatus code
+     */
+    public long[] getStatusCounts()
+    {
+        long[] totals = new long[HealthStatus.values().length];
+        getStatusCounts(totals);
+        return totals;
+    }
+
+    /**
+     * Writes the number of people per status into an existing array, so a
+     * caller that asks every day can reuse one array
+     *
+     * @param totals array receiving the counts, indexed by HealthStatus code
+     */
+    public void getStatusCounts(long[] totals)
+    {
+        Arrays.fill(totals, 0);
+
+        for (long[] counts : statusCounts)
+        {
+            for (int code = 0; code < totals.length; code++)
+            {
+                totals[code] += counts[code];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of people with one status, from the incremental counters
+     *
+     * @param status status to count
+     * @return people with that status
+     */
+    public long getStatusCount(HealthStatus status)
+    {
+        long total = 0;
+
+        for (long[] counts : statusCounts)
+        {
+            total += counts[status.code()];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of people alive and unvaccinated, from the
+     * incremental counters
+     *
+     * @return people eligible for vaccination
+     */
+    public long getEligibleCount()
+    {
+        long eligible = 0;
+
+        for (long count : eligibleCounts)
+        {
+            eligible += count;
+        }
+        return eligible;
+    }
+
+    /**
+     * Returns the list vaccine doses are drawn from, creating it the first
+     * time it is needed so populations that are never vaccinated do not pay for it
+     * The list takes 4 bytes of direct memory per person (8 from 2^31
+     * people on), so a billion people need 4 GB more than the store itself.
+     * If -XX:MaxDirectMemorySize cannot hold it, there is no list and
+     * doses are drawn by a pass over the population instead.
+     *
+     * @return eligible index of this population, or null if it does not fit in direct memory
+     */
+    public EligibleIndex getEligibleIndex()
+    {
+        if (eligibleIndex == null && !eligibleIndexFailed)
+        {
+            try
+            {
+                eligibleIndex = new EligibleIndex(size);
+            }
+            catch (OutOfMemoryError e)
+            {
+                eligibleIndexFailed = true;
+                System.err.println("Not enough direct memory for the eligible index, vaccinating by scanning the population.");
+            }
+        }
+        return eligibleIndex;
+    }
+
+    /**
+     * Recounts one stripe and compares the result with its incremental
+     * counters, for checking that every status change was counted
+     *
+     * @param stripe stripe number
+     * @throws IllegalStateException if a counter differs from the recount
+     */
+    public void verifyCounts(int stripe)
+    {
+        long[] recount = new long[HealthStatus.values().length];
+        store.countStatuses(getStripeStart(stripe), getStripeEnd(stripe), recount);
+
+        if (!Arrays.equals(recount, statusCounts[stripe]))
+        {
+            throw new IllegalStateException("Status counters of stripe " + stripe + " are "
+                + Arrays.toString(statusCounts[stripe]) + " but a recount gives " + Arrays.toString(recount));
+        }
+
+        long eligible = store.countEligible(getStripeStart(stripe), getStripeEnd(stripe));
+
+        if (eligible != eligibleCounts[stripe])
+        {
+            throw new IllegalStateException("Eligible counter of stripe " + stripe + " is "
+                + eligibleCounts[stripe] + " but a recount gives " + eligible);
+        }
+    }
+
+    /**
+     * Returns the number of row stripes
+     *
+     * @return stripe count
+     */
+    public int getStripeCount()
+    {
+        return activeCells.length;
+    }
+
+    /**
+     * Returns the stripe holding a cell
+     *
+     * @param index index of the person
+     * @return stripe number
+     */
+    public int getStripeOf(long index)
+    {
+        return (int) (index / columns / stripeRows);
+    }
+
+    /**
+     * Returns the first cell index of a stripe
+     *
+     * @param stripe stripe number
+     * @return first index in the stripe
+     */
+    public long getStripeStart(int stripe)
+    {
+        return Math.min(size, (long) stripe * stripeRows * columns);
+    }
+
+    /**
+     * Returns the cell index just past the end of a stripe
+     *
+     * @param stripe stripe number
+     * @return end index (exclusive) of the stripe
+     */
+    public long getStripeEnd(int stripe)
+    {
+        return getStripeStart(stripe + 1);
+    }
+
+    /**
+     * Returns the index of active cells in a stripe: every person that is
+     * INFECTED or CONTAGIOUS, plus people who died or recovered since the
+     * last prune (see getActiveCount). Infected people are added when they are infected, so this
+     * holds every contagious person without scanning the population.
+     *
+     * @param stripe stripe number
+     * @return list of active cell indices in the stripe
+     */
+    public CellList getActiveCells(int stripe)
+    {
+        return activeCells[stripe];
+    }
+
+    /**
+     * Returns the number of people in a stripe's active cell index that are
+     * still INFECTED or CONTAGIOUS
+     *
+     * @param stripe stripe number
+     * @return infected people in the stripe
+     */
+    public int getActiveCount(int stripe)
+    {
+        return activeCells[stripe].size() - retiredCells[stripe];
+    }
+
+    /**
+     * Drops people who are no longer infected from a stripe's active cell index
+     * Keeps the order of the remaining cells
+     *
+     * @param stripe stripe number
+     */
+    public void pruneActiveCells(int stripe)
+    {
+        CellList list = activeCells[stripe];
+        int kept = 0;
+
+        for (int i = 0; i < list.size(); i++)
+        {
+            long cell = list.get(i);
+
+            if (isInfected(cell))
+            {
+                list.set(kept++, cell);
+            }
+        }
+
+        list.truncate(kept);
+        retiredCells[stripe] = 0;
+    }
+
+    /**
+     * Applies the transitions scheduled for the next day of a stripe and
+     * moves its wheel to the following day. Prunes the stripe's active
+     * cell index once at least half of it has died or recovered.
+     *
+     * @param stripe stripe number
+     * @param report receives every status change made
+     */
+    public void runScheduledTransitions(int stripe, DayReport report)
+    {
+        TimingWheel wheel = schedules[stripe];
+        CellList due = wheel.due();
+
+        for (int i = 0; i < due.size(); i++)
+        {
+            long event = due.get(i);
+            long cell = event >>> EVENT_BITS;
+
+            // skip people whose infection was ended outside the schedule
+            if (!isInfected(cell))
+            {
+                continue;
+            }
+
+            switch ((int) (event & ((1 << EVENT_BITS) - 1)))
+            {
+                case ONSET:
+                    store.setContagious(cell, true); // contagious from the first full day of infection
+                    break;
+                case BECOME_CONTAGIOUS:
+                    changeStatus(cell, HealthStatus.CONTAGIOUS.code());
+                    store.setContagious(cell, true);
+                    report.recordTransition(HealthStatus.CONTAGIOUS);
+                    break;
+                case RECOVER:
+                    changeStatus(cell, HealthStatus.RECOVERED.code());
+                    store.setContagious(cell, false);
+                    report.recordTransition(HealthStatus.RECOVERED);
+                    retiredCells[stripe]++;
+                    break;
+                default:
+                    setDead(cell);
+                    report.recordTransition(HealthStatus.DEAD);
+                    retiredCells[stripe]++;
+                    break;
+            }
+        }
+
+        wheel.advance();
+
+        if (retiredCells[stripe] * 2 > activeCells[stripe].size())
+        {
+            pruneActiveCells(stripe);
+        }
+    }
+
+    // -------------------------
+    // Per-person state
+    // -------------------------
+
+    /**
+     * Returns the stored status code of a person
+     *
+     * @param index index of the person
+     * @return code of the person's HealthStatus
+     */
+    public byte getStatusCode(long index)
+    {
+        return store.getStatus(index);
+    }
+
+    /**
+     * Returns the health status of a person
+     *
+     * @param index index of the person
+     * @return current HealthStatus
+     */
+    public HealthStatus getHealthStatus(long index)
+    {
+        return HealthStatus.fromCode(store.getStatus(index));
+    }
+
+    /**
+     * Checks if a person has been vaccinated
+     *
+     * @param index index of the person
+     * @return true if vaccinated, false otherwise
+     */
+    public boolean isVaccinated(long index)
+    {
+        return store.isVaccinated(index);
+    }
+
+    /**
+     * Vaccinates a person
+     * Updates status to VACCINATED if previously SUSCEPTIBLE
+     *
+     * @param index index of the person
+     */
+    public void vaccinate(long index)
+    {
+        if (store.isVaccinated(index))
+        {
+            return;
+        }
+
+        byte status = store.getStatus(index);
+        store.setVaccinated(index);
+
+        if (status != HealthStatus.DEAD.code())
+        {
+            eligibleCounts[getStripeOf(index)]--;
+        }
+        if (status == HealthStatus.SUSCEPTIBLE.code())
+        {
+            changeStatus(index, HealthStatus.VACCINATED.code());
+        }
+    }
+
+    /**
+     * Checks if a person is currently infected
+     *
+     * @param index index of the person
+     * @return true if INFECTED or CONTAGIOUS
+     */
+    public boolean isInfected(long index)
+    {
+        byte s = store.getStatus(index);
+        return s == HealthStatus.INFECTED.code() || s == HealthStatus.CONTAGIOUS.code();
+    }
+
+    /**
+     * Checks if a person is currently contagious
+     *
+     * @param index index of the person
+     * @return true if status is CONTAGIOUS or INFECTED with at least 1 day of infection
+     */
+    public boolean isContagious(long index)
+    {
+        return store.isContagious(index);
+    }
+
+    /**
+     * Sets a person's status to DEAD
+     *
+     * @param index index of the person
+     */
+    public void setDead(long index)
+    {
+        if (store.getStatus(index) == HealthStatus.DEAD.code())
+        {
+            return;
+        }
+
+        if (!store.isVaccinated(index))
+        {
+            eligibleCounts[getStripeOf(index)]--;
+        }
+
+        changeStatus(index, HealthStatus.DEAD.code());
+        store.setContagious(index, false);
+    }
+
+    /**
+     * Writes a new status for a person, moves them between the status
+     * counters of their stripe and of their density tile, and lists the
+     * change if tracking is on
+     *
+     * @param index index of the person
+     * @param status new status code
+     */
+    private void changeStatus(long index, byte status)
+    {
+        int stripe = getStripeOf(index);
+        byte previous = store.getStatus(index);
+        long[] counts = statusCounts[stripe];
+        counts[previous]--;
+        counts[status]++;
+        store.setStatus(index, status);
+
+        if (densityGrid != null)
+        {
+            densityGrid.move(index, previous, status);
+        }
+
+        if (trackingChanges)
+        {
+            recordChange(index, stripe);
+        }
+    }
+
+    /**
+     * Infects a susceptible person with the given disease
+     * Samples the recovery and contagious durations and the day of death
+     * now and schedules the resulting transitions. Counting daily updates
+     * from 0 (the update that follows this infection):
+     * update 0 makes the person able to spread, update max(R, 1) - 1 makes
+     * them CONTAGIOUS and update max(R, 1) - 1 + max(C, 1) makes them
+     * RECOVERED, unless the sampled death update comes first.
+     *
+     * @param index index of the person
+     * @param disease Disease instance to infect the person
+     * @return true if the person was susceptible and is now infected
+     */
+    public boolean infect(long index, Disease disease)
+    {
+        if (store.getStatus(index) == HealthStatus.SUSCEPTIBLE.code())
+        {
+            changeStatus(index, HealthStatus.INFECTED.code());
+            int stripe = getStripeOf(index);
+            activeCells[stripe].add(index);
+
+            TimingWheel wheel = schedules[stripe];
+            long cell = index << EVENT_BITS;
+            int contagiousAt = Math.max(disease.randomRecoveryDays(random, day, index), 1) - 1;
+            int recoverAt = contagiousAt + Math.max(disease.randomContagiousDays(random, day, index), 1);
+            int deathAt = disease.randomDeathDay(random, day, index);
+
+            if (deathAt <= recoverAt)
+            {
+                wheel.schedule(deathAt, cell | DIE);
+            }
+            if (contagiousAt > 0 && deathAt > 0)
+            {
+                wheel.schedule(0, cell | ONSET);
+            }
+            if (contagiousAt < deathAt)
+            {
+                wheel.schedule(contagiousAt, cell | BECOME_CONTAGIOUS);
+            }
+            if (recoverAt < deathAt)
+            {
+                wheel.schedule(recoverAt, cell | RECOVER);
+            }
+            return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,330 @@
+import java.util.List;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Holds a copy of what the UI shows of one simulation day: every person's
+ * status code and the day's statistics. Snapshots are filled on the
+ * simulation thread and handed to the Swing thread by SimulationRunner's
+ * triple buffer, which gives each snapshot a single owner at a time, so
+ * painting reads one without locks while the next day is being computed.
+ * A snapshot's arrays are reused from day to day.
+ * It also lists the people whose status changed since the previous
+ * capture, so a display that showed that capture can redraw only them.
+ * The same lists keep captures incremental: every snapshot of a runner
+ * collects the changes made since its own status array was last filled,
+ * and a capture re-reads only those people. The whole population is
+ * copied only for a new snapshot, or when a change list was incomplete.
+ * When the population keeps a DensityGrid, the snapshot copies the tile
+ * counts instead of the people, so a capture costs one pass over the tiles.
+ * A runner keeps three snapshots, so people are only copied one by one
+ * while three copies fit a share of the heap (getMaxPeople).
+ */
+
+// PopulationSnapshot IS-A reusable copy of one displayed day
+// PopulationSnapshot HAS-A status codes, changed cells, DensityGrid, day, status totals and spread timing
+public class PopulationSnapshot
+{
+    /** Most people a snapshot copies one by one (one byte array); larger populations are drawn by density */
+    public static final long MAX_PEOPLE = Integer.MAX_VALUE - 8;
+
+    /** Snapshots a runner fills in turn (its triple buffer) */
+    public static final int BUFFERS = 3;
+
+    /** The status copies of all buffers may take 1 / HEAP_SHARE of the heap */
+    private static final int HEAP_SHARE = 4;
+
+    private byte[] status = new byte[0];     // status code per person, valid up to size
+    private long size;                       // people in the snapshot
+    private final CellList changedCells = new CellList(); // people changed since the previous capture
+    private boolean changesComplete;         // true if changedCells lists every change
+    private long statusSize;                 // people the status array was last filled for, or 0
+    private final DensityGrid density = new DensityGrid(); // tile counts, valid if hasDensity
+    private boolean hasDensity;              // true if the population kept tile counts
+    private int columns;                     // grid columns
+    private long sequence;                   // number of the capture, increasing
+    private int day;                         // days simulated when captured
+    private int maxDays;                     // days the run is configured for
+    private boolean finished;                // true if the run had ended when captured
+    private long susceptible;                // latest statistics when captured
+    private long infected;
+    private long recovering;
+    private long safe;
+    private long deaths;
+    private SpreadMode spreadMode;           // latest spread kernel, or null before the first day
+    private long spreadNanos;                // latest spread time
+
+    // bookkeeping of the simulation thread only, never read by the Swing thread
+    private final CellList missedCells = new CellList(); // people changed since status was last filled
+    private boolean missedComplete;          // true if missedCells lists every such change
+
+    /**
+     * Gets the most people a snapshot copies one by one: the array limit,
+     * or the population whose status copies, one per buffer, still fit
+     * their share of the heap, whichever is lower
+     *
+     * @return largest population copied person by person
+     */
+    public static long getMaxPeople()
+    {
+        return Math.min(MAX_PEOPLE, Runtime.getRuntime().maxMemory() / HEAP_SHARE / BUFFERS);
+    }
+
+    /**
+     * Copies the state of a controller into this snapshot
+     * Must run on the thread that steps the controller
+     *
+     * @param controller controller to copy from
+     * @param sequence number of this capture
+     * @param finished true if the run has ended
+     * @param snapshots every snapshot filled from this controller, including
+     *        this one, to pass the drained changes on to
+     */
+    public void capture(Controller controller, long sequence, boolean finished, List<PopulationSnapshot> snapshots)
+    {
+        Population population = controller.getPopulation();
+        Statistics statistics = controller.getStatistics();
+
+        this.sequence = sequence;
+        this.finished = finished;
+        this.day = controller.getCurrentDay();
+        this.maxDays = controller.getMaxDays();
+        this.columns = population.getColumnCount();
+        this.susceptible = statistics.getLatestSusceptible();
+        this.infected = statistics.getLatestInfected();
+        this.recovering = statistics.getLatestRecovering();
+        this.safe = statistics.getLatestSafe();
+        this.deaths = statistics.getLatestDeaths();
+        this.spreadMode = statistics.getLatestSpreadMode();
+        this.spreadNanos = statistics.getLatestSpreadNanos();
+
+        // populations drawn by density, or too large for the heap, are not copied person by person
+        hasDensity = population.getDensityGrid() != null;
+        size = !hasDensity && population.size() <= getMaxPeople() ? population.size() : 0;
+
+        if (hasDensity)
+        {
+            density.copyFrom(population.getDensityGrid());
+        }
+
+        // the first capture turns tracking on, and reports its changes as incomplete
+        population.setChangeTracking(size > 0 || hasDensity);
+        changesComplete = population.drainChangedCells(changedCells);
+
+        for (PopulationSnapshot snapshot : snapshots)
+        {
+            snapshot.miss(changedCells, changesComplete);
+        }
+        fillStatus(population);
+    }
+
+    /**
+     * Adds changes made since this snapshot's status array was last filled
+     * A list that is incomplete, or that makes the missed people more than
+     * an eighth of the population, leaves a full copy for the next capture
+     *
+     * @param changes people whose status changed
+     * @param complete true if changes lists every change
+     */
+    private void miss(CellList changes, boolean complete)
+    {
+        if (!missedComplete)
+        {
+            return; // already due for a full copy
+        }
+
+        if (!complete || missedCells.size() + changes.size() > Math.max(64, statusSize >> 3))
+        {
+            missedComplete = false;
+            missedCells.clear();
+            return;
+        }
+
+        for (int i = 0; i < changes.size(); i++)
+        {
+            missedCells.add(changes.get(i));
+        }
+    }
+
+    /**
+     * Brings the status array up to date: only the missed people are read
+     * again if the array was filled for the same population, otherwise
+     * every person is copied
+     *
+     * @param population population being captured
+     */
+    private void fillStatus(Population population)
+    {
+        if (missedComplete && statusSize == size && size > 0)
+        {
+            for (int i = 0; i < missedCells.size(); i++)
+            {
+                long cell = missedCells.get(i);
+                status[(int) cell] = population.getStatusCode(cell);
+            }
+        }
+        else
+        {
+            if (status.length < size)
+            {
+                status = new byte[(int) size];
+            }
+
+            for (int i = 0; i < size; i++)
+            {
+                status[i] = population.getStatusCode(i);
+            }
+        }
+
+        statusSize = size;
+        missedCells.clear();
+        missedComplete = size > 0;
+    }
+
+    /**
+     * Gets the status code of a person when the snapshot was taken
+     *
+     * @param index index of the person (below getSize)
+     * @return HealthStatus code
+     */
+    public byte getStatusCode(long index)
+    {
+        return status[(int) index];
+    }
+
+    /**
+     * Gets the people whose status changed between the previous capture
+     * and this one; a person may be listed more than once
+     *
+     * @return changed people, valid if hasCompleteChanges
+     */
+    public CellList getChangedCells()
+    {
+        return changedCells;
+    }
+
+    /**
+     * @return true if getChangedCells lists every change since the previous capture
+     */
+    public boolean hasCompleteChanges()
+    {
+        return changesComplete;
+    }
+
+    /**
+     * @return tile counts of the population, or null if it kept none
+     */
+    public DensityGrid getDensity()
+    {
+        return hasDensity ? density : null;
+    }
+
+    /**
+     * @return people in the snapshot, 0 if the population was drawn by
+     *         density or too large to copy
+     */
+    public long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * @return grid columns
+     */
+    public int getColumnCount()
+    {
+        return columns;
+    }
+
+    /**
+     * @return number of the capture; a later capture has a larger number
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return days simulated when captured
+     */
+    public int getDay()
+    {
+        return day;
+    }
+
+    /**
+     * @return days the run is configured for
+     */
+    public int getMaxDays()
+    {
+        return maxDays;
+    }
+
+    /**
+     * @return true if the run had ended when captured
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * @return susceptible people on the latest day
+     */
+    public long getSusceptible()
+    {
+        return susceptible;
+    }
+
+    /**
+     * @return infected people on the latest day
+     */
+    public long getInfected()
+    {
+        return infected;
+    }
+
+    /**
+     * @return recovering people on the latest day
+     */
+    public long getRecovering()
+    {
+        return recovering;
+    }
+
+    /**
+     * @return safe people on the latest day
+     */
+    public long getSafe()
+    {
+        return safe;
+    }
+
+    /**
+     * @return deaths on the latest day
+     */
+    public long getDeaths()
+    {
+        return deaths;
+    }
+
+    /**
+     * @return latest spread kernel, or null before the first day
+     */
+    public SpreadMode getSpreadMode()
+    {
+        return spreadMode;
+    }
+
+    /**
+     * @return latest spread time in nanoseconds
+     */
+    public long getSpreadNanos()
+    {
+        return spreadNanos;
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of interface:
+ * Defines the per-person state columns backing a Population.
+ * People are addressed by a long index so a store can exceed the int range.
+ * Stores only hold raw values; the disease rules live in Population, and
+ * the days of future transitions live in Population's timing wheels.
+ * A store whose layout allows faster spread scans names a SpreadKernel
+ * that reads it directly.
+ */
+
+// PopulationStore IS-A storage backend for Population
+public interface PopulationStore
+{
+    /**
+     * Returns the number of people held by the store
+     *
+     * @return store size
+     */
+    long size();
+
+    /**
+     * Returns the stored HealthStatus code of a person
+     *
+     * @param index index of the person
+     * @return status code
+     */
+    byte getStatus(long index);
+
+    /**
+     * Stores the HealthStatus code of a person
+     *
+     * @param index index of the person
+     * @param status status code
+     */
+    void setStatus(long index, byte status);
+
+    /**
+     * Checks the vaccinated flag of a person
+     *
+     * @param index index of the person
+     * @return true if vaccinated
+     */
+    boolean isVaccinated(long index);
+
+    /**
+     * Sets the vaccinated flag of a person
+     *
+     * @param index index of the person
+     */
+    void setVaccinated(long index);
+
+    /**
+     * Checks the contagious flag of a person
+     * Population keeps this flag equal to Population.isContagious
+     *
+     * @param index index of the person
+     * @return true if the person can currently spread the disease
+     */
+    boolean isContagious(long index);
+
+    /**
+     * Sets or clears the contagious flag of a person
+     *
+     * @param index index of the person
+     * @param contagious new value of the flag
+     */
+    void setContagious(long index, boolean contagious);
+
+    /**
+     * Returns the number of grid rows that stripe borders must be a
+     * multiple of, for stores whose blocks must each belong to one stripe
+     *
+     * @return row alignment (1 = any row)
+     */
+    default int getRowAlignment()
+    {
+        return 1;
+    }
+
+    /**
+     * Returns the kernel that runs the grid's push and pull scans over this
+     * store; the engine looks it up once per store
+     *
+     * @return kernel for this store's layout
+     */
+    default SpreadKernel getSpreadKernel()
+    {
+        return SpreadKernel.GENERIC;
+    }
+
+    /**
+     * Adds the number of people per status code in [from, to) to counts
+     * Stores may override this with a faster bulk count
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param counts running totals indexed by HealthStatus code
+     */
+    default void countStatuses(long from, long to, long[] counts)
+    {
+        for (long i = from; i < to; i++)
+        {
+            counts[getStatus(i)]++;
+        }
+    }
+
+    /**
+     * Counts people in [from, to) who are alive and unvaccinated
+     * Stores may override this with a faster bulk count
+     *
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @return number of people eligible for vaccination
+     */
+    default long countEligible(long from, long to)
+    {
+        long eligible = 0;
+
+        for (long i = from; i < to; i++)
+        {
+            if (getStatus(i) != HealthStatus.DEAD.code() && !isVaccinated(i))
+            {
+                eligible++;
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Moves everyone who is not SUSCEPTIBLE to their status in a density
+     * grid whose tiles start out counting every person as SUSCEPTIBLE
+     * Stores may override this to skip blocks nobody has left SUSCEPTIBLE in
+     *
+     * @param grid density grid laid out over this store
+     * @param columns grid columns
+     */
+    default void countDensity(DensityGrid grid, int columns)
+    {
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+        long size = size();
+
+        for (int row = 0; (long) row * columns < size; row++)
+        {
+            long rowStart = (long) row * columns;
+            int rowEnd = (int) Math.min(columns, size - rowStart);
+
+            for (int column = 0; column < rowEnd; column++)
+            {
+                byte code = getStatus(rowStart + column);
+
+                if (code != susceptible)
+                {
+                    grid.move(row, column, susceptible, code);
+                }
+            }
+        }
+    }
+}
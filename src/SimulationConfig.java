@@ -11,10 +11,14 @@
  * Responsibilities of class:
  * Represents the configuration of a simulation, including Population, Disease, and Vaccination.
  * Stores maxDays and whether vaccination is enabled.
+ * Stores how a day is run: threads, seed, spread kernel and fused step.
+ * Stores run checks: status counter verification and allocation measurement.
+ * Stores how much statistics history is kept, and how much stays in memory.
+ * Stores the contact network spread over, if any.
  */
 
 // SimulationConfig IS-A configuration holder for the simulation
-// SimulationConfig HAS-A Population, Disease, Vaccination, maxDays, vaccinationEnabled
+// SimulationConfig HAS-A Population, Disease, Vaccination and run settings
 public class SimulationConfig
 {
     private Population population;       // population for the simulation
@@ -23,10 +27,19 @@ public class SimulationConfig
 
     public int maxDays;                  // maximum number of simulation days
     public boolean vaccinationEnabled;   // whether vaccination is enabled
+    public int parallelism;              // worker threads for each simulation day (1 = serial)
+    public long seed;                    // random seed (same seed and setup = same run)
+    public SpreadMode spreadMode;        // spread kernel used each day
+    public boolean fusedStep;            // run each day as one pass per stripe (always spreads by PULL; not with a contact graph)
+    public boolean verifyCounts;         // recount the population after each day to check the status counters
+    public int statisticsCapacity;       // most days of statistics kept at full detail (0 = keep every day)
+    public int statisticsHotDays;        // days of statistics kept in memory, older ones go to disk (0 = all in memory)
+    public boolean measureAllocations;   // record the heap bytes each step allocates in its DayReport
+    public ContactGraph contactGraph;    // contact network to spread over instead of the grid (null = grid)
 
     /**
      * Constructs a SimulationConfig with default model objects
-     * Sets default values for maxDays and vaccinationEnabled
+     * Sets default values for maxDays, vaccinationEnabled and the run settings
      */
     public SimulationConfig()
     {
@@ -36,6 +49,15 @@ public class SimulationConfig
 
         vaccinationEnabled = false;
         this.maxDays = 100;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.seed = System.nanoTime();
+        this.spreadMode = SpreadMode.AUTO;
+        this.fusedStep = false;
+        this.verifyCounts = false;
+        this.statisticsCapacity = 0;
+        this.statisticsHotDays = 0;
+        this.measureAllocations = false;
+        this.contactGraph = null;
     }
 
     /**
@@ -0,0 +1,727 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Runs the per-day disease phases over the population's row stripes.
+ * Spread, infection and the scheduled transitions are each run for every
+ * stripe, in parallel on a ForkJoinPool when the parallelism is above one.
+ * Status counts come from the population's incremental counters; a full
+ * recount is only made to verify them.
+ * Infections that cross a stripe border are passed to the neighboring stripe
+ * and applied by it, so every stripe only ever writes its own people.
+ * The grid's push and pull scans come from the store's SpreadKernel,
+ * looked up once per store.
+ * In AUTO spread mode the engine picks the push or pull kernel each day from
+ * the number of active and susceptible people, like direction-optimizing BFS.
+ * A fused step gives the day's vaccine doses, then runs pull spread and
+ * infection in one task per stripe, followed by the day's scheduled
+ * transitions.
+ * A disease with a non-default contact kernel is always spread by pulling
+ * through that kernel, whose cost per person does not grow with its area.
+ * Over a contact graph the stripes are node ranges: each pushes from its
+ * contagious nodes and sorts its targets by the stripe they land in, then
+ * each applies the targets in its range, reading only its own slice of
+ * every stripe's sorted list.
+ * Either way the results of every phase are collected in a DayReport.
+ * Once its buffers have grown to the epidemic's peak, a day allocates
+ * nothing: the phases are bound once, the stripe task tree is reused, and
+ * counts go into scratch arrays owned by the engine.
+ */
+
+// SimulationEngine HAS-A ForkJoinPool, the store's SpreadKernel, per-stripe infection outboxes, sorted graph targets and DayReports, and a reusable stripe task tree
+// SimulationEngine IS-A parallel executor for one simulation day
+public class SimulationEngine
+{
+    private static final int STRIPES_PER_THREAD = 4;    // extra stripes for load balancing
+    private static final int ABOVE = 0;                 // outbox for the previous stripe
+    private static final int OWN = 1;                   // outbox for the stripe itself
+    private static final int BELOW = 2;                 // outbox for the next stripe
+    private static final int PUSH_PROBE_COST = 2;       // relative cost of a push probe (it draws a random number)
+    private static final com.sun.management.ThreadMXBean ALLOCATION_COUNTERS = allocationCounters(); // or null
+
+    private final int parallelism;          // number of worker threads
+    private final ForkJoinPool pool;        // workers, or null when running serially
+    private final CopyOnWriteArrayList<Thread> workers; // threads started by the pool, for allocation counts
+    private CellList[][] outboxes;          // [stripe][ABOVE/OWN/BELOW] targets to infect
+    private CellList[] graphTargets;        // [stripe] graph targets pushed by the stripe, by destination stripe
+    private int[][] graphOffsets;           // [stripe][destination] start of each destination's graph targets
+    private DayReport[] stripeReports;      // [stripe] results of the current day
+    private KernelPressure[] kernelPressures; // [stripe] scratch for a non-default contact kernel
+    private PopulationStore kernelStore;    // store spreadKernel was looked up for, or null
+    private SpreadKernel spreadKernel;      // push and pull scans of kernelStore
+    private final DayReport report;         // results of the current or last finished day
+    private final long[] totals;            // scratch for end-of-day status counts
+    private Population stepPopulation;      // population the current phase runs on
+    private Disease stepDisease;            // disease the current phase spreads
+    private ContactGraph stepGraph;         // contact network the current phase spreads over
+    private final IntConsumer pullPhase;    // phases bound once, reading stepPopulation and stepDisease
+    private final IntConsumer pushPhase;
+    private final IntConsumer kernelPhase;
+    private final IntConsumer graphPhase;
+    private final IntConsumer graphInfectPhase;
+    private final IntConsumer infectPhase;
+    private final IntConsumer transitionPhase;
+    private final IntConsumer fusedPhase;
+    private IntConsumer phase;              // phase run by the task tree
+    private StripeTask rootTask;            // task tree over all stripes, reused by every phase
+
+    /**
+     * Constructs an engine with the given number of worker threads
+     *
+     * @param parallelism number of threads (1 runs every phase on the caller)
+     */
+    public SimulationEngine(int parallelism)
+    {
+        this.parallelism = Math.max(1, parallelism);
+        this.workers = new CopyOnWriteArrayList<>();
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism, this::newWorker, null, false) : null;
+        this.outboxes = new CellList[0][];
+        this.graphTargets = new CellList[0];
+        this.graphOffsets = new int[0][];
+        this.stripeReports = new DayReport[0];
+        this.kernelPressures = new KernelPressure[0];
+        this.report = new DayReport();
+        this.totals = new long[HealthStatus.values().length];
+
+        pullPhase = s -> spreadKernel.pull(stepPopulation, stepDisease, s, outboxes[s][OWN]);
+        pushPhase = s -> spreadKernel.push(stepPopulation, stepDisease, s,
+                                           outboxes[s][ABOVE], outboxes[s][OWN], outboxes[s][BELOW]);
+        kernelPhase = s -> stepDisease.collectInfectionsByKernel(stepPopulation, s, outboxes[s][OWN], kernelPressures[s]);
+        graphPhase = s ->
+        {
+            stepDisease.collectInfections(stepPopulation, stepGraph, s, outboxes[s][OWN]);
+            sortGraphTargets(s);
+        };
+        graphInfectPhase = this::infectGraphStripe;
+        infectPhase = this::infectStripe;
+        transitionPhase = s -> stepPopulation.runScheduledTransitions(s, stripeReports[s]);
+        fusedPhase = s -> fusedStripe(stepPopulation, stepDisease, s);
+    }
+
+    /**
+     * Starts a pool worker and remembers it for allocatedBytes
+     *
+     * @param forkJoinPool pool the worker belongs to
+     * @return the new worker
+     */
+    private ForkJoinWorkerThread newWorker(ForkJoinPool forkJoinPool)
+    {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        workers.add(worker);
+        return worker;
+    }
+
+    /**
+     * Returns the heap bytes allocated so far by the calling thread and the
+     * engine's workers, from the JVM's per-thread allocation counters.
+     * The difference between two calls around a step is what the step
+     * allocated; the call itself allocates nothing on HotSpot.
+     *
+     * @return allocated bytes, or -1 if the JVM does not count them
+     */
+    public long allocatedBytes()
+    {
+        if (ALLOCATION_COUNTERS == null)
+        {
+            return -1;
+        }
+
+        long bytes = ALLOCATION_COUNTERS.getCurrentThreadAllocatedBytes();
+
+        for (int i = 0; i < workers.size(); i++)
+        {
+            bytes += Math.max(0, ALLOCATION_COUNTERS.getThreadAllocatedBytes(workers.get(i).getId()));
+        }
+        return bytes;
+    }
+
+    /**
+     * Looks up the JVM's per-thread allocation counters once; the lookup
+     * itself allocates, so it must stay out of the measured steps
+     *
+     * @return the counters, or null if the JVM does not keep them
+     */
+    private static com.sun.management.ThreadMXBean allocationCounters()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (threads instanceof com.sun.management.ThreadMXBean counters
+            && counters.isThreadAllocatedMemorySupported() && counters.isThreadAllocatedMemoryEnabled())
+        {
+            return counters;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of worker threads
+     *
+     * @return parallelism
+     */
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Splits the population into stripes for this engine
+     * Must be called again whenever the population is re-initialized
+     *
+     * @param population population to partition
+     */
+    public void prepare(Population population)
+    {
+        int stripes = parallelism == 1 ? 1 : parallelism * STRIPES_PER_THREAD;
+        population.setStripeCount(stripes, Disease.NEIGHBORHOOD_RADIUS);
+        ensureStripeBuffers(population.getStripeCount());
+    }
+
+    /**
+     * Returns the kernel used by the most recent spread
+     *
+     * @return PUSH or PULL, or null before the first spread
+     */
+    public SpreadMode getLastSpreadMode()
+    {
+        return report.getSpreadMode();
+    }
+
+    /**
+     * Returns the time taken by the most recent spread
+     *
+     * @return elapsed nanoseconds
+     */
+    public long getLastSpreadNanos()
+    {
+        return report.getSpreadNanos();
+    }
+
+    /**
+     * Returns the results of the current day, or of the last finished day
+     *
+     * @return report of the day (reused every day)
+     */
+    public DayReport getReport()
+    {
+        return report;
+    }
+
+    /**
+     * Starts a phase-by-phase day: clears the day's report
+     * Follow with the phases and finish with finishDay
+     *
+     * @param day simulation day about to run
+     */
+    public void beginDay(int day)
+    {
+        report.clear(day);
+
+        for (DayReport stripeReport : stripeReports)
+        {
+            stripeReport.clear(day);
+        }
+    }
+
+    /**
+     * Finishes a phase-by-phase day: adds up the stripe reports
+     *
+     * @param population population that was stepped
+     * @return the finished report
+     */
+    public DayReport finishDay(Population population)
+    {
+        for (DayReport stripeReport : stripeReports)
+        {
+            report.add(stripeReport);
+        }
+
+        population.getStatusCounts(totals);
+        report.setCounts(totals, population.getEligibleCount());
+        return report;
+    }
+
+    /**
+     * Runs a whole day in one pass per stripe, with the same results as
+     * running vaccination, PULL spread and updatePeople one after the other.
+     * Today's vaccine doses are drawn first from the eligible index, which
+     * touches only the people vaccinated. The first pass then visits every
+     * person once and infects susceptible people by neighbor pressure. This
+     * is safe within one pass because the pull kernel only reads contagious
+     * flags, which a new infection does not change. The second pass applies
+     * the day's scheduled transitions.
+     *
+     * @param population population to step (its day must be set)
+     * @param disease disease being spread
+     * @param vaccination campaign to run today, or null for no vaccination
+     * @return the finished report
+     */
+    public DayReport stepFused(Population population, Disease disease, Vaccination vaccination)
+    {
+        int stripes = population.getStripeCount();
+        ensureStripeBuffers(stripes);
+        beginDay(population.getDay());
+        report.setFused(true);
+
+        if (vaccination != null)
+        {
+            report.addVaccinated(vaccination.vaccinateSample(population, population.getDay()));
+        }
+
+        long start = System.nanoTime();
+        bind(population, disease);
+        forEachStripe(stripes, fusedPhase);
+        report.setSpread(SpreadMode.PULL, System.nanoTime() - start);
+
+        forEachStripe(stripes, transitionPhase);
+        unbind();
+
+        for (DayReport stripeReport : stripeReports)
+        {
+            report.add(stripeReport);
+        }
+
+        population.getStatusCounts(totals);
+        report.setCounts(totals, population.getEligibleCount());
+        return report;
+    }
+
+    /**
+     * Picks the cheaper spread kernel for the current state of the epidemic.
+     * Push costs about one random draw per neighbor of every active person;
+     * pull costs a scan of everyone plus a neighbor count for every susceptible
+     * person. Pull wins once the active-to-susceptible ratio gets high enough.
+     * The pull cost comes from the store's SpreadKernel, which knows how
+     * much of the grid its scan can skip.
+     *
+     * @param population population about to be spread through
+     * @return PUSH or PULL
+     */
+    public SpreadMode chooseSpreadMode(Population population)
+    {
+        long active = 0;
+
+        for (int s = 0; s < population.getStripeCount(); s++)
+        {
+            active += population.getActiveCount(s);
+        }
+
+        long susceptible = population.getStatusCount(HealthStatus.SUSCEPTIBLE);
+        long pushCost = active * Disease.NEIGHBORHOOD_SIZE * PUSH_PROBE_COST;
+        long pullCost = getSpreadKernel(population).estimatePullCost(population, active, susceptible);
+
+        return pushCost > pullCost ? SpreadMode.PULL : SpreadMode.PUSH;
+    }
+
+    /**
+     * Spreads the disease for one day
+     * All stripes collect their infections before any stripe applies them, so
+     * people infected today cannot infect others on the same day
+     *
+     * @param population population to spread through
+     * @param disease disease being spread
+     * @param mode PUSH from contagious people, PULL into susceptible people, or AUTO
+     */
+    public void spread(Population population, Disease disease, SpreadMode mode)
+    {
+        long start = System.nanoTime();
+        int stripes = population.getStripeCount();
+        ensureStripeBuffers(stripes);
+
+        if (!disease.getContactKernel().isDefault())
+        {
+            mode = SpreadMode.PULL; // the push and pull scans only know the default neighborhood
+        }
+        else if (mode == SpreadMode.AUTO)
+        {
+            mode = chooseSpreadMode(population);
+        }
+
+        bind(population, disease);
+        forEachStripe(stripes, !disease.getContactKernel().isDefault() ? kernelPhase
+                               : mode == SpreadMode.PULL ? pullPhase : pushPhase);
+        forEachStripe(stripes, infectPhase);
+        unbind();
+
+        report.setSpread(mode, System.nanoTime() - start);
+    }
+
+    /**
+     * Spreads the disease for one day over a contact graph instead of the
+     * grid, pushing along the adjacency slices of contagious nodes
+     * All stripes collect their targets before any stripe applies them, so
+     * people infected today cannot infect others on the same day
+     *
+     * @param population population whose people are the graph's nodes
+     * @param disease disease being spread
+     * @param graph contact network to spread over
+     */
+    public void spread(Population population, Disease disease, ContactGraph graph)
+    {
+        long start = System.nanoTime();
+        int stripes = population.getStripeCount();
+        ensureStripeBuffers(stripes);
+
+        bind(population, disease);
+        stepGraph = graph;
+        forEachStripe(stripes, graphPhase);
+        forEachStripe(stripes, graphInfectPhase);
+        stepGraph = null;
+        unbind();
+
+        for (int s = 0; s < stripes; s++)
+        {
+            outboxes[s][OWN].clear();
+        }
+
+        report.setSpread(SpreadMode.PUSH, System.nanoTime() - start);
+    }
+
+    /**
+     * Sorts the graph targets a stripe pushed by the stripe they land in
+     * (a stable counting sort), so each stripe can later read just its own
+     * slice of them
+     *
+     * @param s stripe number
+     */
+    private void sortGraphTargets(int s)
+    {
+        CellList targets = outboxes[s][OWN];
+        CellList sorted = graphTargets[s];
+        int[] offsets = graphOffsets[s];
+        int stripes = offsets.length - 1;
+
+        Arrays.fill(offsets, 0);
+
+        for (int i = 0; i < targets.size(); i++)
+        {
+            offsets[stepPopulation.getStripeOf(targets.get(i)) + 1]++;
+        }
+
+        for (int d = 0; d < stripes; d++)
+        {
+            offsets[d + 1] += offsets[d];
+        }
+
+        sorted.resize(targets.size());
+
+        for (int i = 0; i < targets.size(); i++)
+        {
+            long target = targets.get(i);
+            sorted.set(offsets[stepPopulation.getStripeOf(target)]++, target);
+        }
+
+        // each offset now holds the end of its destination; shift them back to the starts
+        System.arraycopy(offsets, 0, offsets, 1, stripes);
+        offsets[0] = 0;
+    }
+
+    /**
+     * Applies the graph infections that land in one stripe, from its slice
+     * of every stripe's sorted targets; only this stripe's people are written
+     *
+     * @param s stripe number
+     */
+    private void infectGraphStripe(int s)
+    {
+        long infected = 0;
+
+        for (int source = 0; source < graphTargets.length; source++)
+        {
+            CellList targets = graphTargets[source];
+            int end = graphOffsets[source][s + 1];
+
+            for (int i = graphOffsets[source][s]; i < end; i++)
+            {
+                if (stepPopulation.infect(targets.get(i), stepDisease))
+                {
+                    infected++;
+                }
+            }
+        }
+        stripeReports[s].addInfections(infected);
+    }
+
+    /**
+     * Applies the infections collected for one stripe: those from the
+     * stripe above, its own, and those from the stripe below
+     *
+     * @param s stripe number
+     */
+    private void infectStripe(int s)
+    {
+        long infected = 0;
+
+        if (s > 0)
+        {
+            infected += infectAll(stepPopulation, stepDisease, outboxes[s - 1][BELOW]);
+        }
+
+        infected += infectAll(stepPopulation, stepDisease, outboxes[s][OWN]);
+
+        if (s + 1 < outboxes.length)
+        {
+            infected += infectAll(stepPopulation, stepDisease, outboxes[s + 1][ABOVE]);
+        }
+
+        stripeReports[s].addInfections(infected);
+    }
+
+    /**
+     * Sets the population and disease the bound phases run on
+     *
+     * @param population population of the next phases
+     * @param disease disease of the next phases (may be null for transitions)
+     */
+    private void bind(Population population, Disease disease)
+    {
+        stepPopulation = population;
+        stepDisease = disease;
+        getSpreadKernel(population);
+    }
+
+    /**
+     * Looks up the spread kernel of the population's store, once per store
+     *
+     * @param population population about to be spread through
+     * @return kernel for the population's store
+     */
+    private SpreadKernel getSpreadKernel(Population population)
+    {
+        if (population.getStore() != kernelStore)
+        {
+            kernelStore = population.getStore();
+            spreadKernel = kernelStore.getSpreadKernel();
+        }
+        return spreadKernel;
+    }
+
+    /**
+     * Drops the references taken by bind, so the engine does not keep a
+     * population alive after a reset
+     */
+    private void unbind()
+    {
+        stepPopulation = null;
+        stepDisease = null;
+    }
+
+    /**
+     * Applies today's scheduled progression and death transitions
+     * Only people whose state changes today are visited
+     *
+     * @param population population to update
+     */
+    public void updatePeople(Population population)
+    {
+        int stripes = population.getStripeCount();
+        ensureStripeBuffers(stripes);
+        bind(population, null);
+        forEachStripe(stripes, transitionPhase);
+        unbind();
+    }
+
+    /**
+     * Counts people per health status
+     * Reads the population's incremental counters, so no scan is needed
+     *
+     * @param population population to count
+     * @return counts indexed by HealthStatus code
+     */
+    public long[] countStatuses(Population population)
+    {
+        return population.getStatusCounts();
+    }
+
+    /**
+     * Recounts every stripe in parallel and checks the result against the
+     * population's incremental counters
+     *
+     * @param population population to check
+     * @throws IllegalStateException if any counter is wrong
+     */
+    public void verifyCounts(Population population)
+    {
+        forEachStripe(population.getStripeCount(), population::verifyCounts);
+    }
+
+    /**
+     * Stops the worker threads
+     */
+    public void shutdown()
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Infects every listed person and empties the list
+     *
+     * @param population population holding the people
+     * @param disease disease to infect with
+     * @param targets people to infect (duplicates are infected once)
+     * @return number of people infected
+     */
+    private static long infectAll(Population population, Disease disease, CellList targets)
+    {
+        long infected = 0;
+
+        for (int i = 0; i < targets.size(); i++)
+        {
+            if (population.infect(targets.get(i), disease))
+            {
+                infected++;
+            }
+        }
+
+        targets.clear();
+        return infected;
+    }
+
+    /**
+     * The fused pass over one stripe: pull infection of every susceptible
+     * person through the store's SpreadKernel, and infection of the people
+     * it collects right away. People infected today only start spreading
+     * after the day's transitions, so infecting before other stripes have
+     * pulled changes nothing they read. A non-default
+     * contact kernel collects the stripe's infections through KernelPressure.
+     * On a sparse store another stripe may allocate a chunk while this one
+     * reads it; a new chunk holds no contagious person, so either view
+     * gives the same counts.
+     *
+     * @param population population being stepped
+     * @param disease disease being spread
+     * @param stripe stripe number
+     */
+    private void fusedStripe(Population population, Disease disease, int stripe)
+    {
+        CellList own = outboxes[stripe][OWN];
+
+        if (!disease.getContactKernel().isDefault())
+        {
+            disease.collectInfectionsByKernel(population, stripe, own, kernelPressures[stripe]);
+        }
+        else
+        {
+            spreadKernel.pull(population, disease, stripe, own);
+        }
+        stripeReports[stripe].addInfections(infectAll(population, disease, own));
+    }
+
+    /**
+     * Grows the per-stripe buffers to cover the given number of stripes
+     *
+     * @param stripes number of stripes
+     */
+    private void ensureStripeBuffers(int stripes)
+    {
+        if (outboxes.length == stripes)
+        {
+            return;
+        }
+
+        outboxes = new CellList[stripes][3];
+        graphTargets = new CellList[stripes];
+        graphOffsets = new int[stripes][stripes + 1];
+        stripeReports = new DayReport[stripes];
+        kernelPressures = new KernelPressure[stripes];
+
+        for (int s = 0; s < stripes; s++)
+        {
+            outboxes[s][ABOVE] = new CellList();
+            outboxes[s][OWN] = new CellList();
+            outboxes[s][BELOW] = new CellList();
+            graphTargets[s] = new CellList();
+            stripeReports[s] = new DayReport();
+            kernelPressures[s] = new KernelPressure();
+        }
+    }
+
+    /**
+     * Runs a phase for every stripe and waits for all of them
+     *
+     * @param stripes number of stripes
+     * @param phase work to run for one stripe
+     */
+    private void forEachStripe(int stripes, IntConsumer phase)
+    {
+        if (pool == null || stripes == 1)
+        {
+            for (int s = 0; s < stripes; s++)
+            {
+                phase.accept(s);
+            }
+            return;
+        }
+
+        if (rootTask == null || rootTask.to != stripes)
+        {
+            rootTask = new StripeTask(0, stripes);
+        }
+
+        this.phase = phase;
+        rootTask.reset();
+        pool.invoke(rootTask);
+        this.phase = null;
+    }
+
+    // StripeTask IS-A RecursiveAction that splits a stripe range in halves
+    // StripeTask HAS-A prebuilt subtask for each half, reused by every phase
+    private class StripeTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;            // first stripe (inclusive)
+        private final int to;              // last stripe (exclusive)
+        private final StripeTask left;     // first half, or null for a single stripe
+        private final StripeTask right;    // second half, or null for a single stripe
+
+        StripeTask(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+            int mid = (from + to) >>> 1;
+            this.left = to - from == 1 ? null : new StripeTask(from, mid);
+            this.right = to - from == 1 ? null : new StripeTask(mid, to);
+        }
+
+        /**
+         * Makes the tree ready to run again after it completed
+         */
+        void reset()
+        {
+            reinitialize();
+
+            if (left != null)
+            {
+                left.reset();
+                right.reset();
+            }
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (left == null)
+            {
+                phase.accept(from);
+                return;
+            }
+
+            invokeAll(left, right);
+        }
+    }
+}
@@ -2,6 +2,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.util.List;
 
 /**
@@ -17,15 +18,35 @@ import java.util.List;
  * Responsibilities of class:
  * Represents the visual simulation grid.
  * Draws people colored by health status and allows interactive infection during setup.
+ * The grid is shown through a Viewport: the mouse wheel zooms around the
+ * pointer and dragging pans. Zoomed out past one pixel per person, the
+ * grid is drawn from per-tile status counts kept by the population, so a
+ * frame costs O(pixels) however large the population is.
+ * A GridRaster caches the rendered grid in tiles per zoom level; when a new
+ * snapshot lists every change since the one on screen, only the changed
+ * people are re-colored in the cached tiles and only the bounding
+ * rectangles of those changes are repainted.
+ * While a SimulationRunner steps the population on its own thread, the
+ * panel paints the latest PopulationSnapshot instead of the live
+ * population, and clicks are handed to the runner.
  */
 
 // SimulationPanel IS-A JPanel
-// SimulationPanel HAS-A Population, Disease, interactiveSetup flag
+// SimulationPanel HAS-A Population, Disease, interactiveSetup flag, SimulationRunner, PopulationSnapshot, Viewport, GridRaster
 public class SimulationPanel extends JPanel
 {
     private Population population;         // simulation population
     private Disease disease;               // simulation disease
     private boolean interactiveSetup;      // whether users can click to infect people
+    private SimulationRunner runner;       // runner stepping the population, or null if none
+    private PopulationSnapshot snapshot;   // state painted while a runner is active, or null
+    private final Viewport viewport = new Viewport();     // zoom and pan of the grid
+    private final GridRaster raster = new GridRaster();   // cached tiles of the grid
+    private final CellList changed = new CellList();      // changes drained from the live population
+    private long lastSequence = -1;        // snapshot whose changes the tiles hold, or -1 if none
+    private int modelLevel = Integer.MIN_VALUE; // zoom level the population was set up for, MIN_VALUE if none
+    private int dragX;                     // mouse x at the last drag event
+    private int dragY;                     // mouse y at the last drag event
 
     /**
      * Constructs a SimulationPanel with the given Population and Disease
@@ -41,26 +62,148 @@ public class SimulationPanel extends JPanel
 
         setBackground(Color.WHITE);
 
-        addMouseListener(new java.awt.event.MouseAdapter()
+        MouseAdapter mouse = new MouseAdapter()
         {
             @Override
-            public void mouseClicked(java.awt.event.MouseEvent e)
+            public void mouseClicked(MouseEvent e)
             {
                 handleMouseClick(e);
             }
-        });
+
+            @Override
+            public void mousePressed(MouseEvent e)
+            {
+                dragX = e.getX();
+                dragY = e.getY();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e)
+            {
+                if (layoutView())
+                {
+                    viewport.pan(e.getX() - dragX, e.getY() - dragY);
+                    repaint();
+                }
+                dragX = e.getX();
+                dragY = e.getY();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e)
+            {
+                if (layoutView())
+                {
+                    viewport.zoom(-e.getWheelRotation(), e.getX(), e.getY());
+                    repaint();
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
     }
 
     /**
      * Updates the population and disease used by the panel and repaints
+     * The view is fitted to the new grid
      * 
      * @param population simulation population
      * @param disease simulation disease
      */
     public void setPopulationAndDisease(Population population, Disease disease)
     {
+        if (runner == null && this.population != null && this.population != population)
+        {
+            // the old population is no longer drawn, so it stops listing changes
+            this.population.setChangeTracking(false);
+        }
         this.population = population;
         this.disease = disease;
+        this.lastSequence = -1;
+        this.modelLevel = Integer.MIN_VALUE;
+        viewport.reset();
+        raster.clear();
+        repaint();
+    }
+
+    /**
+     * Sets the runner that steps the population on another thread
+     * While a runner is set the live population is never read for painting
+     * 
+     * @param runner active runner, or null once it has stopped
+     */
+    public void setRunner(SimulationRunner runner)
+    {
+        this.runner = runner;
+        this.snapshot = null;
+        this.lastSequence = -1;
+        this.modelLevel = Integer.MIN_VALUE;
+        raster.clear();
+        repaint();
+    }
+
+    /**
+     * Sets the snapshot to paint and repaints
+     * If the tiles hold the previous snapshot, only the people that
+     * changed are redrawn and only their bounding rectangles repainted
+     * 
+     * @param snapshot snapshot taken from the runner
+     */
+    public void setSnapshot(PopulationSnapshot snapshot)
+    {
+        this.snapshot = snapshot;
+
+        if (!layoutView())
+        {
+            repaint();
+            return;
+        }
+
+        boolean follows = snapshot.hasCompleteChanges() && snapshot.getSequence() == lastSequence + 1;
+        lastSequence = snapshot.getSequence();
+        useSnapshot(snapshot);
+
+        if (!follows)
+        {
+            raster.invalidate();
+            repaint();
+            return;
+        }
+
+        List<Rectangle> dirty = raster.applyChanges(snapshot.getChangedCells(), viewport.getLevel());
+
+        if (raster.hasStaleTiles(viewport, getWidth(), getHeight()))
+        {
+            repaint();
+            return;
+        }
+
+        int scale = viewport.getScale();
+
+        for (Rectangle bounds : dirty)
+        {
+            long x = (long) bounds.x * scale - viewport.getOffsetX();
+            long y = (long) bounds.y * scale - viewport.getOffsetY();
+
+            if (x < getWidth() && y < getHeight() && x + (long) bounds.width * scale > 0
+                && y + (long) bounds.height * scale > 0)
+            {
+                repaint((int) x, (int) y, bounds.width * scale, bounds.height * scale);
+            }
+        }
+    }
+
+    /**
+     * Sets how a tile of people is colored when zoomed out past one pixel
+     * per person
+     * 
+     * @param mix true to mix the colors of the tile's people, false to use
+     *        the color of its most common status
+     */
+    public void setMixDensityColors(boolean mix)
+    {
+        raster.setMixColors(mix);
         repaint();
     }
 
@@ -79,37 +222,52 @@ public class SimulationPanel extends JPanel
      * 
      * @param e mouse event
      */
-    private void handleMouseClick(java.awt.event.MouseEvent e)
+    private void handleMouseClick(MouseEvent e)
     {
         if (!interactiveSetup || population == null || disease == null)
         {
             return;
         }
 
-        int cols = population.getColumnCount();
-        int rows = population.getRowCount();
+        if (!layoutView())
+        {
+            return;
+        }
 
-        int col = e.getX() / Math.max(1, getCellWidth());
-        int row = e.getY() / Math.max(1, getCellHeight());
+        long cell = viewport.cellAt(e.getX(), e.getY());
 
-        int index = row * cols + col;
+        if (cell < 0)
+        {
+            return;
+        }
 
-        List<Person> people = population.getPeople();
+        long index = (cell >>> 32) * population.getColumnCount() + (cell & 0xFFFFFFFFL);
 
-        if (index >= 0 && index < people.size())
+        if (index < population.size())
         {
-            Person p = people.get(index);
-
-            if (p.getHealthStatus() == HealthStatus.SUSCEPTIBLE)
+            if (runner != null)
+            {
+                // the population belongs to the simulation thread while it runs
+                Population target = population;
+                Disease infection = disease;
+                runner.execute(() ->
+                {
+                    if (target.getHealthStatus(index) == HealthStatus.SUSCEPTIBLE)
+                    {
+                        target.infect(index, infection);
+                    }
+                });
+            }
+            else if (population.getHealthStatus(index) == HealthStatus.SUSCEPTIBLE)
             {
-                p.infect(disease);
+                population.infect(index, disease);
                 repaint();
             }
         }
     }
 
     /**
-     * Paints the simulation grid of people colored by health status
+     * Paints the part of the simulation grid the viewport shows
      * 
      * @param g Graphics object
      */
@@ -118,87 +276,118 @@ public class SimulationPanel extends JPanel
     {
         super.paintComponent(g);
 
-        if (population == null)
+        if (!layoutView())
         {
             return;
         }
 
-        List<Person> people = population.getPeople();
-        int total = people.size();
+        int level = viewport.getLevel();
+        int cols = population.getColumnCount();
 
-        if (total == 0)
+        if (runner == null)
         {
-            return;
-        }
+            // without a runner the population belongs to the Swing thread
+            boolean complete = population.drainChangedCells(changed);
 
-        int cols = population.getColumnCount();
-        int rows = population.getRowCount();
-        int cellW = getCellWidth();
-        int cellH = getCellHeight();
+            if (level == 0)
+            {
+                raster.useStatuses(population::getStatusCode, population.size(), cols);
+            }
+            else
+            {
+                raster.useDensity(population.getDensityGrid(), cols);
+            }
 
-        for (int i = 0; i < total; i++)
+            if (complete)
+            {
+                raster.applyChanges(changed, level);
+            }
+            else
+            {
+                raster.invalidate();
+            }
+            lastSequence = -1;
+        }
+        else if (snapshot != null)
+        {
+            useSnapshot(snapshot);
+        }
+        else
         {
-            Person p = people.get(i);
-            int col = i % cols;
-            int row = i / cols;
-            int x = col * cellW;
-            int y = row * cellH;
+            raster.useNothing(cols);
+        }
+        raster.draw(g, viewport, getWidth(), getHeight());
 
-            g.setColor(colorFor(p.getHealthStatus()));
-            g.fillRect(x, y, cellW, cellH);
-        }  
         g.setColor(Color.BLACK);
         g.setFont(new Font("SansSerif", Font.BOLD, 14));
-        int gridHeight = population.getRowCount() * getCellHeight();
-        int textY = gridHeight + 20;   // space below the grid
+        int textY = (int) Math.min(viewport.getGridBottom() + 20, Integer.MAX_VALUE);   // space below the grid
         g.drawString("Click anywhere on the green to add infected", 10, textY);
     }
 
     /**
-     * Computes the width of each grid cell
+     * Points the tile cache at the data a snapshot carries
      * 
-     * @return cell width in pixels
+     * @param snapshot snapshot to draw
      */
-    private int getCellWidth()
+    private void useSnapshot(PopulationSnapshot snapshot)
     {
-        return population == null ? 1 : Math.max(1, getWidth() / population.getColumnCount());
+        if (snapshot.getDensity() != null)
+        {
+            raster.useDensity(snapshot.getDensity(), snapshot.getColumnCount());
+        }
+        else if (snapshot.getSize() > 0)
+        {
+            raster.useStatuses(snapshot::getStatusCode, snapshot.getSize(), snapshot.getColumnCount());
+        }
+        else
+        {
+            raster.useNothing(snapshot.getColumnCount());
+        }
     }
 
     /**
-     * Computes the height of each grid cell
+     * Lays the viewport out for the current grid and panel size
      * 
-     * @return cell height in pixels
+     * @return true if there is a grid to show
      */
-    private int getCellHeight()
+    private boolean layoutView()
     {
-        return population == null ? 1 : Math.max(1, getHeight() / population.getRowCount());
+        if (population == null || population.size() == 0)
+        {
+            return false;
+        }
+        viewport.layout(population.getColumnCount(), population.getRowCount(), getWidth(), getHeight());
+
+        if (viewport.getLevel() != modelLevel)
+        {
+            setUpModel();
+        }
+        return true;
     }
 
     /**
-     * Returns a color representing the given health status
-     * 
-     * @param s health status
-     * @return color to use in rendering
+     * Sets the population up to be drawn at the viewport's level: tile
+     * counts of the level's size, or none at level 0. Without a runner the
+     * population also starts listing its changes, so painting can redraw
+     * only them; with one, snapshots take care of that.
+     * Runs only when the population, the runner or the level changes.
      */
-    private Color colorFor(HealthStatus s)
+    private void setUpModel()
     {
-        switch (s)
-        {
-            case SUSCEPTIBLE:
-                return Color.GREEN;
-            case INFECTED:
-                return Color.RED;
-            case CONTAGIOUS:
-                return Color.ORANGE;
-            case RECOVERED:
-                return new Color(0, 100, 0); // DARK GREEN
-            case VACCINATED:
-                return new Color(0, 150, 255); // LIGHT BLUE
-            case DEAD:
-                return Color.DARK_GRAY;
-            default:
-                return Color.BLACK;
+        int shift = viewport.getLevel() == 0 ? -1 : viewport.getLevel();
+        modelLevel = viewport.getLevel();
+
+        if (runner == null)
+        {
+            // without a runner the population belongs to the Swing thread
+            population.setDensityShift(shift);
+            population.setChangeTracking(true);
+        }
+        else
+        {
+            // the tile counts are switched on the simulation thread, between two days
+            Population target = population;
+            runner.execute(() -> target.setDensityShift(shift));
         }
     }
 }
-
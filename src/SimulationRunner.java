@@ -0,0 +1,327 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Runs a Controller's simulation days on a background thread, so a slow
+ * day never blocks the Swing thread and the repaint rate never limits the
+ * simulation speed. The speed is set in days per second, or as fast as
+ * possible. The UI asks for a snapshot when it is ready to paint (at most
+ * once per display refresh); the simulation thread fills one between two
+ * days and publishes it through a triple buffer: the simulation thread
+ * fills its own back snapshot, swaps it into the shared middle slot, and
+ * the Swing thread swaps the middle slot with the snapshot it painted
+ * last. Each snapshot has one owner at a time, so neither side locks.
+ * Changes the UI makes to the population (clicks that infect people) are
+ * queued and run on the simulation thread between two days.
+ * An error on the simulation thread ends the run; it is kept for the UI
+ * to report (getFailure) instead of ending the thread silently.
+ */
+
+// SimulationRunner IS-A background stepping loop for a Controller
+// SimulationRunner HAS-A Controller, simulation thread, speed, task queue and three PopulationSnapshots
+public class SimulationRunner
+{
+    /** Days per second meaning no pacing: step as fast as possible */
+    public static final double AS_FAST_AS_POSSIBLE = 0;
+
+    private final Controller controller;                    // controller stepped by the thread
+    private final Thread thread;                            // the simulation thread
+    private final Object lock = new Object();               // guards the control state below
+    private final Queue<Runnable> tasks;                    // UI changes to run between days
+    private final AtomicReference<PopulationSnapshot> middle; // latest published snapshot
+    private PopulationSnapshot back;                        // snapshot filled by the simulation thread
+    private PopulationSnapshot front;                       // snapshot last taken by the Swing thread
+    private final List<PopulationSnapshot> snapshots;       // every snapshot created, for incremental captures
+
+    // control state, guarded by lock
+    private boolean paused;                 // true while days are not being stepped
+    private boolean finished;               // true once the controller has no more days
+    private Throwable failure;              // error that ended the simulation thread, or null
+    private boolean stopped;                // true once the thread must end
+    private boolean snapshotRequested;      // true if the UI wants a new snapshot
+    private long periodNanos;               // time between two days, 0 = as fast as possible
+    private long nextStep;                  // System.nanoTime() of the next day
+
+    private long captures;                  // snapshots filled, numbers the next one (simulation thread)
+
+    /**
+     * Creates a paused runner for a controller and starts its thread
+     * The controller must not be stepped by anyone else until stop returns
+     *
+     * @param controller controller to step
+     * @param daysPerSecond initial speed, or AS_FAST_AS_POSSIBLE
+     */
+    public SimulationRunner(Controller controller, double daysPerSecond)
+    {
+        this.controller = controller;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.middle = new AtomicReference<>();
+        this.back = new PopulationSnapshot();
+        this.snapshots = new ArrayList<>();
+        snapshots.add(back);
+        this.paused = true;
+        this.snapshotRequested = true; // show the starting state
+        setDaysPerSecond(daysPerSecond);
+
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Sets the simulation speed
+     *
+     * @param daysPerSecond days to simulate per second, or AS_FAST_AS_POSSIBLE
+     */
+    public void setDaysPerSecond(double daysPerSecond)
+    {
+        synchronized (lock)
+        {
+            periodNanos = daysPerSecond <= 0 ? 0 : (long) (1e9 / daysPerSecond);
+            nextStep = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Pauses or resumes stepping
+     *
+     * @param paused true to pause
+     */
+    public void setPaused(boolean paused)
+    {
+        synchronized (lock)
+        {
+            this.paused = paused;
+            nextStep = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * @return true once the controller has simulated all its days, or
+     *         the simulation thread has failed
+     */
+    public boolean isFinished()
+    {
+        synchronized (lock)
+        {
+            return finished;
+        }
+    }
+
+    /**
+     * Gets the error that ended the simulation thread; the runner is
+     * finished once there is one, and no snapshot follows it
+     *
+     * @return the error, or null while the thread runs normally
+     */
+    public Throwable getFailure()
+    {
+        synchronized (lock)
+        {
+            return failure;
+        }
+    }
+
+    /**
+     * Queues a change to the population, run on the simulation thread
+     * between two days and followed by a new snapshot
+     *
+     * @param task change to run
+     */
+    public void execute(Runnable task)
+    {
+        tasks.add(task);
+        requestSnapshot();
+    }
+
+    /**
+     * Asks for a snapshot of the current day; called by the UI when it
+     * is ready to paint again
+     */
+    public void requestSnapshot()
+    {
+        synchronized (lock)
+        {
+            snapshotRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Takes the newest published snapshot, if there is one newer than the
+     * snapshot taken last time. Only the Swing thread may call this; the
+     * returned snapshot stays unchanged until the next call.
+     *
+     * @return newest snapshot, or null if nothing new was published
+     */
+    public PopulationSnapshot takeSnapshot()
+    {
+        PopulationSnapshot latest = middle.get();
+
+        if (latest == null || (front != null && latest.getSequence() <= front.getSequence()))
+        {
+            return null;
+        }
+
+        front = middle.getAndSet(front);
+        return front;
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to end, so the
+     * controller can be used by the caller again
+     */
+    public void stop()
+    {
+        synchronized (lock)
+        {
+            stopped = true;
+            lock.notifyAll();
+        }
+
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the simulation loop until the runner is stopped, keeping any
+     * error that ends it for the UI
+     */
+    private void run()
+    {
+        try
+        {
+            loop();
+        }
+        catch (RuntimeException | Error e)
+        {
+            synchronized (lock)
+            {
+                failure = e;
+                finished = true;
+            }
+        }
+    }
+
+    /**
+     * The simulation loop: waits until a day is due or a snapshot is
+     * wanted, runs queued changes, steps, and publishes snapshots
+     */
+    private void loop()
+    {
+        while (true)
+        {
+            boolean capture;
+            boolean stepNow;
+
+            synchronized (lock)
+            {
+                while (!stopped && !snapshotRequested && tasks.isEmpty() && !isStepDue())
+                {
+                    waitForChange();
+                }
+
+                if (stopped)
+                {
+                    return;
+                }
+
+                capture = snapshotRequested || !tasks.isEmpty();
+                snapshotRequested = false;
+                stepNow = isStepDue();
+
+                if (stepNow)
+                {
+                    // keep the pace, but never try to catch up after a slow day
+                    nextStep = Math.max(nextStep + periodNanos, System.nanoTime());
+                }
+            }
+
+            for (Runnable task = tasks.poll(); task != null; task = tasks.poll())
+            {
+                task.run();
+            }
+
+            if (stepNow && !controller.step())
+            {
+                synchronized (lock)
+                {
+                    finished = true;
+                }
+                capture = true; // always show the last day
+            }
+
+            if (capture)
+            {
+                publish();
+            }
+        }
+    }
+
+    /**
+     * @return true if a day should be stepped now (lock held)
+     */
+    private boolean isStepDue()
+    {
+        return !paused && !finished && System.nanoTime() >= nextStep;
+    }
+
+    /**
+     * Waits until the control state changes or the next day is due (lock held)
+     */
+    private void waitForChange()
+    {
+        long delay = paused || finished ? 0 : nextStep - System.nanoTime();
+
+        try
+        {
+            if (delay > 0 || paused || finished)
+            {
+                lock.wait(delay / 1_000_000, (int) (delay % 1_000_000));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Fills the back snapshot and swaps it into the middle slot
+     */
+    private void publish()
+    {
+        boolean done;
+
+        synchronized (lock)
+        {
+            done = finished;
+        }
+
+        if (back == null)
+        {
+            back = new PopulationSnapshot();
+            snapshots.add(back);
+        }
+
+        back.capture(controller, ++captures, done, snapshots);
+        back = middle.getAndSet(back);
+    }
+}
@@ -33,6 +33,7 @@ public class SimulationSetupPanel extends JPanel
     private final JTextField contagiousMinField;
     private final JTextField contagiousMaxField;
     private final JTextField maxDaysField;
+    private final JTextField seedField;
     private final JButton startButton;
     private final Disease diseaseModel;
     private final PresetManager presetManager;
@@ -147,6 +148,10 @@ public class SimulationSetupPanel extends JPanel
         maxDaysField = new JTextField(String.valueOf(config.maxDays));
         addLabelAndComponent("Max Simulation Days:", maxDaysField, gbc, row++);
 
+        // Random seed
+        seedField = new JTextField(String.valueOf(config.seed));
+        addLabelAndComponent("Random Seed:", seedField, gbc, row++);
+
         // Preset dropdown
         diseasePresetDropdown = new JComboBox<>();
         refreshPresetDropdown();
@@ -413,10 +418,10 @@ public class SimulationSetupPanel extends JPanel
      */
     private void sendData()
     {
-        int pop = 0;
+        long pop = 0;
         try
         {
-            pop = Integer.parseInt(populationField.getText().trim());
+            pop = Long.parseLong(populationField.getText().trim());
             if (pop <= 0)
             {
                 throw new IllegalArgumentException("Population must be positive.");
@@ -481,6 +486,17 @@ public class SimulationSetupPanel extends JPanel
             return;
         }
 
+        long seed = 0;
+        try
+        {
+            seed = Long.parseLong(seedField.getText().trim());
+        }
+        catch (NumberFormatException ex)
+        {
+            JOptionPane.showMessageDialog(this, "Random seed must be a whole number.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
         boolean vaccEnabled = enableVaccinationCheckbox.isSelected();
         config.vaccinationEnabled = vaccEnabled;
         int vaccStart = 0;
@@ -548,8 +564,17 @@ public class SimulationSetupPanel extends JPanel
             config.setDisease(diseaseCopy);
         }
 
-        popModel.setSize(pop);
+        try
+        {
+            popModel.setSize(pop);
+        }
+        catch (OutOfMemoryError ex)
+        {
+            JOptionPane.showMessageDialog(this, "Not enough memory for a population of " + pop + ".", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         config.maxDays = maxDays;
+        config.seed = seed;
 
         if (vaccEnabled)
         {
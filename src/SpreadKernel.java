@@ -0,0 +1,213 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Runs the grid spread of the default neighborhood for one stripe: the
+ * push scan from contagious people and the pull scan into susceptible
+ * people, and estimates what a pull costs so the engine can pick the
+ * cheaper one. This class reads the population one person at a time, so
+ * it works on any store. A store whose layout allows a faster scan returns
+ * a subclass from PopulationStore.getSpreadKernel; every subclass makes the
+ * same draws, so the results never depend on the store.
+ * Kernels keep no per-day state, so one kernel serves every stripe.
+ */
+
+// SpreadKernel IS-A per-stripe push and pull scan of the grid
+public class SpreadKernel
+{
+    /** Kernel of stores without one of their own */
+    public static final SpreadKernel GENERIC = new SpreadKernel();
+
+    /**
+     * Constructs the generic kernel; stores use GENERIC or a subclass
+     */
+    protected SpreadKernel()
+    {
+    }
+
+    /**
+     * Runs today's infection attempts from the contagious people of one stripe
+     * Does not change the population; people to infect are added to the list
+     * for the stripe they live in. Stripes are at least NEIGHBORHOOD_RADIUS rows
+     * high, so a target is always in this stripe or the one above or below.
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the contagious sources
+     * @param above receives targets in the previous stripe
+     * @param own receives targets in this stripe
+     * @param below receives targets in the next stripe
+     */
+    public void push(Population population, Disease disease, int stripe, CellList above, CellList own, CellList below)
+    {
+        int cols = population.getColumnCount();
+        int rows = population.getRowCount();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        CellList sources = population.getActiveCells(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        double rate = disease.getInfectionRate();
+
+        for (int i = 0; i < sources.size(); i++)
+        {
+            long source = sources.get(i);
+
+            // Only contagious people can spread
+            if (population.isContagious(source))
+            {
+                int row = (int) (source / cols);
+                int col = (int) (source % cols);
+
+                // neighborhood distance 2
+                for (int dr = -Disease.NEIGHBORHOOD_RADIUS; dr <= Disease.NEIGHBORHOOD_RADIUS; dr++)
+                {
+                    for (int dc = -Disease.NEIGHBORHOOD_RADIUS; dc <= Disease.NEIGHBORHOOD_RADIUS; dc++)
+                    {
+                        if (dr == 0 && dc == 0)
+                        {
+                            continue;
+                        }
+
+                        long target = attemptInfectNeighbor(population, random, day, rate, row + dr, col + dc, cols, rows, dr, dc);
+
+                        if (target >= 0)
+                        {
+                            (target < stripeStart ? above : target >= stripeEnd ? below : own).add(target);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs today's infections for the susceptible people of one stripe by
+     * pulling from their neighbors instead of pushing from contagious people.
+     * Each susceptible person counts their contagious neighbors k and is
+     * infected with one draw against 1 - (1 - infectionRate)^k, which has the
+     * same distribution as k separate contact attempts.
+     * Does not change the population; only people of this stripe are added.
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     */
+    public void pull(Population population, Disease disease, int stripe, CellList own)
+    {
+        long stripeEnd = population.getStripeEnd(stripe);
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+
+        for (long cell = population.getStripeStart(stripe); cell < stripeEnd; cell++)
+        {
+            if (population.getStatusCode(cell) == susceptible
+                && disease.catchesByPressure(population, cell, countContagiousAround(population, cell)))
+            {
+                own.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Estimates the cost of a pull over the whole population, in the units
+     * of SimulationEngine.chooseSpreadMode (about one neighbor read each):
+     * a scan of everyone plus a neighbor count for every susceptible person
+     *
+     * @param population population about to be spread through
+     * @param active people on the stripes' active lists
+     * @param susceptible susceptible people
+     * @return estimated pull cost
+     */
+    public long estimatePullCost(Population population, long active, long susceptible)
+    {
+        return population.size() + susceptible * Disease.NEIGHBORHOOD_SIZE;
+    }
+
+    /**
+     * Counts the contagious people in the neighborhood of a person, one
+     * read per neighbor, leaving out cells past the grid's edges
+     *
+     * @param population population holding the person
+     * @param cell index of the person
+     * @return contagious neighbors
+     */
+    protected static int countContagiousAround(Population population, long cell)
+    {
+        int cols = population.getColumnCount();
+        int rows = population.getRowCount();
+        long total = population.size();
+        int row = (int) (cell / cols);
+        int col = (int) (cell % cols);
+        int contagious = 0;
+
+        for (int r = Math.max(0, row - Disease.NEIGHBORHOOD_RADIUS); r <= Math.min(rows - 1, row + Disease.NEIGHBORHOOD_RADIUS); r++)
+        {
+            long rowStart = (long) r * cols;
+            int lastCol = (int) Math.min(Math.min(cols - 1, col + Disease.NEIGHBORHOOD_RADIUS), total - 1 - rowStart);
+
+            for (int c = Math.max(0, col - Disease.NEIGHBORHOOD_RADIUS); c <= lastCol; c++)
+            {
+                if (population.isContagious(rowStart + c))
+                {
+                    contagious++;
+                }
+            }
+        }
+        return contagious;
+    }
+
+    /**
+     * Attempts to infect a neighbor at the given row/column
+     * Each (source, neighbor) pair gets its own random draw for the day, keyed
+     * by the neighbor and the direction of the source
+     *
+     * @param population population being spread through
+     * @param random counter-based random source
+     * @param day current day
+     * @param rate infection rate of the disease
+     * @param row target row
+     * @param col target column
+     * @param cols total columns in grid
+     * @param rows total rows in grid
+     * @param dr row offset from the source to the target
+     * @param dc column offset from the source to the target
+     * @return index of the neighbor if the attempt succeeded, otherwise -1
+     */
+    private static long attemptInfectNeighbor(Population population, CounterRng random, int day, double rate,
+                                              int row, int col, int cols, int rows, int dr, int dc)
+    {
+        if (row < 0 || row >= rows)
+        {
+            return -1;
+        }
+
+        if (col < 0 || col >= cols)
+        {
+            return -1;
+        }
+
+        long index = (long) row * cols + col;
+
+        if (index < 0 || index >= population.size())
+        {
+            return -1;
+        }
+
+        // only attempt to infect SUSCEPTIBLE people
+        if (population.getStatusCode(index) == HealthStatus.SUSCEPTIBLE.code())
+        {
+            int direction = (dr + Disease.NEIGHBORHOOD_RADIUS) * (2 * Disease.NEIGHBORHOOD_RADIUS + 1) + (dc + Disease.NEIGHBORHOOD_RADIUS);
+
+            if (random.uniform(day, index, CounterRng.INFECTION + direction) < rate)
+            {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+}
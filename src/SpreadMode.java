@@ -0,0 +1,17 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents the ways the disease can be spread through the grid each day.
+ */
+
+// SpreadMode IS-A enumeration of spread kernels
+public enum SpreadMode
+{
+    PUSH,   // contagious people attempt to infect each susceptible neighbor
+    PULL,   // susceptible people draw once against their contagious neighbor count
+    AUTO    // pick PUSH or PULL each day, whichever is cheaper for the epidemic's density
+}
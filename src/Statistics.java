@@ -1,5 +1,8 @@
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Lead Author(s):
@@ -10,29 +13,188 @@ import java.util.List;
  * Responsibilities of class:
  * Tracks daily statistics of the population during the simulation.
  * Records counts of susceptible, infected, recovering, safe, and dead individuals.
+ * Also records which spread kernel ran each day and how long it took.
+ * Every statistic is a primitive LongColumn; the full-history getters return
+ * read-only views of the columns, not copies.
+ * With a capacity, the most recent capacity days are kept at full detail
+ * in a ring. Days that fall out of the ring move to an archive of the
+ * same capacity, which is downsampled: when it is full, every other
+ * sample is dropped and from then on only every second day is kept. Long
+ * runs keep their whole history, at a lower resolution only for the
+ * older days, and the history never grows past twice the capacity.
+ * Without a capacity, a number of hot days can be set instead: once twice
+ * that many days are held, the oldest ones are spilled to a memory-mapped
+ * file in the background (see ColumnSpill) and read back through the same
+ * views when asked for.
  * Can reset data for a new simulation.
  */
 
 // Statistics IS-A plain Java object
-// Statistics HAS-A lists of daily counts for each health category
+// Statistics HAS-A columns of daily counts for each health category, of spread metrics and of sample days
+// Statistics HAS-A downsampled archive columns of older days when bounded
+// Statistics HAS-A ColumnSpill for each group of columns when spilling
 public class Statistics
 {
-    private final List<Integer> dailySusceptible;
-    private final List<Integer> dailyInfected;
-    private final List<Integer> dailyRecovering;
-    private final List<Integer> dailySafe;
-    private final List<Integer> dailyDeaths;
+    private final int capacity;                 // most samples kept per column, or 0 for no limit
+    private final int hotDays;                  // samples always kept in memory when spilling, or 0
+    private int recordedDays;                   // days recorded so far
+    private int recordedSpreads;                // spreads recorded so far
+    private int dayStride;                      // days between archived count samples
+    private int spreadStride;                   // days between archived spread samples
+    private final long[] countRow;              // scratch row of count samples
+    private final long[] spreadRow;             // scratch row of spread samples
+    private final long[] latestCounts;          // counts of the most recent day, by HealthStatus code
+    private SpreadMode latestSpreadMode;        // kernel of the most recent spread, or null
+    private long latestSpreadNanos;             // time of the most recent spread
+
+    private final LongColumn days;              // day of each count sample
+    private final LongColumn dailySusceptible;
+    private final LongColumn dailyInfected;
+    private final LongColumn dailyRecovering;
+    private final LongColumn dailySafe;
+    private final LongColumn dailyDeaths;
+    private final LongColumn spreadDays;        // day of each spread sample
+    private final LongColumn dailySpreadMode;   // SpreadMode ordinal, or -1 for none
+    private final LongColumn dailySpreadNanos;
+    private final LongColumn[] countColumns;    // columns filled by recordDay, days first
+    private final LongColumn[] spreadColumns;   // columns filled by recordSpread, spreadDays first
+    private final LongColumn[] countArchive;    // older count samples, downsampled, or null when unbounded
+    private final LongColumn[] spreadArchive;   // older spread samples, downsampled, or null when unbounded
+    private final ColumnSpill countSpill;       // older count samples, or null when not spilling
+    private final ColumnSpill spreadSpill;      // older spread samples, or null when not spilling
+    private final List<List<Long>> countViews;  // read-only views of countColumns, spilled or archived rows first
+    private final List<List<Long>> spreadViews; // read-only views of spreadColumns, spilled or archived rows first
+    private final List<SpreadMode> spreadModeView;  // read-only view of dailySpreadMode
 
     /**
-     * Constructs an empty Statistics object with initialized lists.
+     * Constructs an empty Statistics object that keeps every day.
      */
     public Statistics()
     {
-        dailySusceptible = new ArrayList<>();
-        dailyInfected = new ArrayList<>();
-        dailyRecovering = new ArrayList<>();
-        dailySafe = new ArrayList<>();
-        dailyDeaths = new ArrayList<>();
+        this(0);
+    }
+
+    /**
+     * Constructs an empty Statistics object with a bounded history.
+     *
+     * @param capacity most recent days kept at full detail (0 for no limit, otherwise at least 4)
+     */
+    public Statistics(int capacity)
+    {
+        this(capacity, 0);
+    }
+
+    /**
+     * Constructs an empty Statistics object that may spill old days to disk
+     * A bounded history (capacity above 0) is small and is never spilled.
+     * Hot days are clamped to the largest block a spill can write at once.
+     *
+     * @param capacity most recent days kept at full detail (0 for no limit, otherwise at least 4)
+     * @param hotDays days always kept in memory before older ones are spilled (0 = never spill)
+     */
+    public Statistics(int capacity, int hotDays)
+    {
+        if (capacity != 0 && capacity < 4)
+        {
+            throw new IllegalArgumentException("Statistics capacity must be 0 or at least 4: " + capacity);
+        }
+
+        if (hotDays < 0)
+        {
+            throw new IllegalArgumentException("Hot days must not be negative: " + hotDays);
+        }
+
+        this.capacity = capacity;
+        this.latestCounts = new long[HealthStatus.values().length];
+        this.dayStride = 1;
+        this.spreadStride = 1;
+        int initial = capacity > 0 ? capacity : 256; // default capacity set here
+
+        days = new LongColumn(initial);
+        dailySusceptible = new LongColumn(initial);
+        dailyInfected = new LongColumn(initial);
+        dailyRecovering = new LongColumn(initial);
+        dailySafe = new LongColumn(initial);
+        dailyDeaths = new LongColumn(initial);
+        spreadDays = new LongColumn(initial);
+        dailySpreadMode = new LongColumn(initial);
+        dailySpreadNanos = new LongColumn(initial);
+        countColumns = new LongColumn[] { days, dailySusceptible, dailyInfected, dailyRecovering, dailySafe, dailyDeaths };
+        spreadColumns = new LongColumn[] { spreadDays, dailySpreadMode, dailySpreadNanos };
+        this.hotDays = capacity > 0 ? 0 : Math.min(hotDays, ColumnSpill.getMaxBlockRows(countColumns.length));
+        countArchive = capacity > 0 ? createColumns(countColumns.length, capacity) : null;
+        spreadArchive = capacity > 0 ? createColumns(spreadColumns.length, capacity) : null;
+        countRow = new long[countColumns.length];
+        spreadRow = new long[spreadColumns.length];
+
+        countSpill = createSpill(countColumns.length, this.hotDays);
+        spreadSpill = countSpill == null ? null : createSpill(spreadColumns.length, this.hotDays);
+        countViews = createViews(countSpill, countArchive, countColumns);
+        spreadViews = createViews(spreadSpill, spreadArchive, spreadColumns);
+        spreadModeView = new SpreadModeView(spreadViews.get(1));
+    }
+
+    /**
+     * Creates the spill of one group of columns
+     * If no file can be created the group simply stays in memory
+     *
+     * @param columns columns in the group
+     * @param hotDays rows per spilled block (0 = no spill)
+     * @return the spill, or null
+     */
+    private static ColumnSpill createSpill(int columns, int hotDays)
+    {
+        if (hotDays == 0)
+        {
+            return null;
+        }
+
+        try
+        {
+            return new ColumnSpill(columns, hotDays);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to create statistics spill file, keeping every day in memory.");
+            return null;
+        }
+    }
+
+    /**
+     * Creates a group of empty columns
+     *
+     * @param count number of columns
+     * @param capacity values each column holds without growing
+     * @return the columns
+     */
+    private static LongColumn[] createColumns(int count, int capacity)
+    {
+        LongColumn[] columns = new LongColumn[count];
+
+        for (int c = 0; c < count; c++)
+        {
+            columns[c] = new LongColumn(capacity);
+        }
+        return columns;
+    }
+
+    /**
+     * Creates the read-only views of a group of columns
+     *
+     * @param spill spill of the group, or null
+     * @param archive archived columns of the group, or null
+     * @param columns hot columns of the group
+     * @return one view per column
+     */
+    private static List<List<Long>> createViews(ColumnSpill spill, LongColumn[] archive, LongColumn[] columns)
+    {
+        List<Long>[] views = new HistoryView[columns.length];
+
+        for (int c = 0; c < columns.length; c++)
+        {
+            views[c] = new HistoryView(spill, archive == null ? null : archive[c], columns[c], c);
+        }
+        return List.of(views);
     }
 
     /**
@@ -42,85 +204,244 @@ public class Statistics
      */
     public void recordDay(Population population)
     {
-        int susceptible = 0;
-        int infected = 0;
-        int recovering = 0;
-        int safe = 0;
-        int dead = 0;
+        population.getStatusCounts(latestCounts); // kept up to date by the population, no scan needed
+        recordLatestCounts();
+    }
+
+    /**
+     * Record the counts for a single day from counts that were already taken.
+     *
+     * @param counts number of people per status, indexed by HealthStatus code
+     */
+    public void recordDay(long[] counts)
+    {
+        System.arraycopy(counts, 0, latestCounts, 0, latestCounts.length);
+        recordLatestCounts();
+    }
+
+    /**
+     * Record the end-of-day counts of a finished day, without copying them
+     * into a new array
+     *
+     * @param report report of the day
+     */
+    public void recordDay(DayReport report)
+    {
+        report.copyCounts(latestCounts);
+        recordLatestCounts();
+    }
+
+    /**
+     * Adds latestCounts to the history
+     */
+    private void recordLatestCounts()
+    {
+        long[] counts = latestCounts;
+        countRow[0] = recordedDays++;
+        countRow[1] = counts[HealthStatus.SUSCEPTIBLE.ordinal()];
+        countRow[2] = counts[HealthStatus.INFECTED.ordinal()];
+        countRow[3] = counts[HealthStatus.CONTAGIOUS.ordinal()];
+        countRow[4] = counts[HealthStatus.RECOVERED.ordinal()] + counts[HealthStatus.VACCINATED.ordinal()];
+        countRow[5] = counts[HealthStatus.DEAD.ordinal()];
+        dayStride = addRow(countColumns, countArchive, dayStride, countRow);
+
+        if (countSpill != null && days.size() >= 2 * hotDays)
+        {
+            countSpill.spill(countColumns); // the oldest hotDays samples leave the heap
+        }
+    }
+
+    /**
+     * Record which spread kernel ran for a single day and how long it took.
+     *
+     * @param mode kernel that ran (PUSH or PULL)
+     * @param nanos elapsed time of the spread in nanoseconds
+     */
+    public void recordSpread(SpreadMode mode, long nanos)
+    {
+        latestSpreadMode = mode;
+        latestSpreadNanos = nanos;
+        spreadRow[0] = recordedSpreads++;
+        spreadRow[1] = mode == null ? -1 : mode.ordinal();
+        spreadRow[2] = nanos;
+        spreadStride = addRow(spreadColumns, spreadArchive, spreadStride, spreadRow);
+
+        if (spreadSpill != null && spreadDays.size() >= 2 * hotDays)
+        {
+            spreadSpill.spill(spreadColumns);
+        }
+    }
+
+    /**
+     * Adds one row of samples to a group of columns. Once a bounded group's
+     * recent columns are full, the row replaces the oldest one, which moves
+     * to the archive if its day falls on the archive's stride.
+     *
+     * @param columns recent columns of the group, day first
+     * @param archive archived columns of the group, or null when unbounded
+     * @param stride days between archived samples
+     * @param row samples to add, in column order; overwritten
+     * @return days between archived samples from now on
+     */
+    private int addRow(LongColumn[] columns, LongColumn[] archive, int stride, long[] row)
+    {
+        if (archive == null || columns[0].size() < capacity)
+        {
+            for (int c = 0; c < columns.length; c++)
+            {
+                columns[c].add(row[c]);
+            }
+            return stride;
+        }
+
+        for (int c = 0; c < columns.length; c++)
+        {
+            row[c] = columns[c].roll(row[c]); // row now holds the day leaving the ring
+        }
+
+        long day = row[0];
 
-        for (Person p : population.getPeople())
+        if (day % stride == 0 && archive[0].size() == capacity)
         {
-            switch (p.getHealthStatus())
+            thin(archive);
+            stride *= 2;
+        }
+
+        if (day % stride == 0)
+        {
+            for (int c = 0; c < archive.length; c++)
             {
-                case SUSCEPTIBLE -> susceptible++;
-                case INFECTED -> infected++;
-                case CONTAGIOUS -> recovering++;
-                case RECOVERED, VACCINATED -> safe++;
-                case DEAD -> dead++;
+                archive[c].add(row[c]);
             }
         }
+        return stride;
+    }
 
-        dailySusceptible.add(susceptible);
-        dailyInfected.add(infected);
-        dailyRecovering.add(recovering);
-        dailySafe.add(safe);
-        dailyDeaths.add(dead);
+    /**
+     * Keeps every other sample of some columns, which halves their
+     * resolution and frees half of the capacity; all columns are thinned
+     * alike so they stay aligned with their day column
+     *
+     * @param columns columns recorded together
+     */
+    private static void thin(LongColumn... columns)
+    {
+        for (LongColumn column : columns)
+        {
+            column.thin(column.size());
+        }
     }
 
-    // -------------------------
-    // Latest-day getters
-    // -------------------------
-    public int getLatestSusceptible()
+    public long getLatestSusceptible()
+    {
+        return latestCounts[HealthStatus.SUSCEPTIBLE.ordinal()];
+    }
+
+    public long getLatestInfected()
+    {
+        return latestCounts[HealthStatus.INFECTED.ordinal()];
+    }
+
+    public long getLatestRecovering()
+    {
+        return latestCounts[HealthStatus.CONTAGIOUS.ordinal()];
+    }
+
+    public long getLatestSafe()
+    {
+        return latestCounts[HealthStatus.RECOVERED.ordinal()] + latestCounts[HealthStatus.VACCINATED.ordinal()];
+    }
+
+    public long getLatestDeaths()
     {
-        return dailySusceptible.isEmpty() ? 0 : dailySusceptible.get(dailySusceptible.size() - 1);
+        return latestCounts[HealthStatus.DEAD.ordinal()];
     }
 
-    public int getLatestInfected()
+    public SpreadMode getLatestSpreadMode()
     {
-        return dailyInfected.isEmpty() ? 0 : dailyInfected.get(dailyInfected.size() - 1);
+        return latestSpreadMode;
     }
 
-    public int getLatestRecovering()
+    public long getLatestSpreadNanos()
     {
-        return dailyRecovering.isEmpty() ? 0 : dailyRecovering.get(dailyRecovering.size() - 1);
+        return latestSpreadNanos;
     }
 
-    public int getLatestSafe()
+    /**
+     * @return most recent days kept at full detail, or 0 for no limit
+     */
+    public int getCapacity()
     {
-        return dailySafe.isEmpty() ? 0 : dailySafe.get(dailySafe.size() - 1);
+        return capacity;
     }
 
-    public int getLatestDeaths()
+    /**
+     * @return days always kept in memory, or 0 when nothing is spilled
+     */
+    public int getHotDays()
     {
-        return dailyDeaths.isEmpty() ? 0 : dailyDeaths.get(dailyDeaths.size() - 1);
+        return countSpill == null ? 0 : hotDays;
     }
 
     // -------------------------
-    // Full-history getters
+    // Full-history getters (read-only views)
     // -------------------------
-    public List<Integer> getDailySusceptible()
+
+    /**
+     * Returns the day of every count sample
+     * Without a capacity this is 0, 1, 2, ...; with one, the archived days
+     * before the most recent capacity days step by a power of two
+     *
+     * @return read-only view of the sample days
+     */
+    public List<Long> getDays()
+    {
+        return countViews.get(0);
+    }
+
+    public List<Long> getDailySusceptible()
+    {
+        return countViews.get(1);
+    }
+
+    public List<Long> getDailyInfected()
+    {
+        return countViews.get(2);
+    }
+
+    public List<Long> getDailyRecovering()
+    {
+        return countViews.get(3);
+    }
+
+    public List<Long> getDailySafe()
     {
-        return dailySusceptible;
+        return countViews.get(4);
     }
 
-    public List<Integer> getDailyInfected()
+    public List<Long> getDailyDeaths()
     {
-        return dailyInfected;
+        return countViews.get(5);
     }
 
-    public List<Integer> getDailyRecovering()
+    /**
+     * Returns the day of every spread sample
+     *
+     * @return read-only view of the spread sample days
+     */
+    public List<Long> getSpreadDays()
     {
-        return dailyRecovering;
+        return spreadViews.get(0);
     }
 
-    public List<Integer> getDailySafe()
+    public List<SpreadMode> getDailySpreadMode()
     {
-        return dailySafe;
+        return spreadModeView;
     }
 
-    public List<Integer> getDailyDeaths()
+    public List<Long> getDailySpreadNanos()
     {
-        return dailyDeaths;
+        return spreadViews.get(2);
     }
 
     /**
@@ -128,10 +449,120 @@ public class Statistics
      */
     public void reset()
     {
+        recordedDays = 0;
+        recordedSpreads = 0;
+        dayStride = 1;
+        spreadStride = 1;
+        Arrays.fill(latestCounts, 0);
+        latestSpreadMode = null;
+        latestSpreadNanos = 0;
+        days.clear();
         dailySusceptible.clear();
         dailyInfected.clear();
         dailyRecovering.clear();
         dailySafe.clear();
         dailyDeaths.clear();
+        spreadDays.clear();
+        dailySpreadMode.clear();
+        dailySpreadNanos.clear();
+
+        if (countArchive != null)
+        {
+            for (LongColumn column : countArchive)
+            {
+                column.clear();
+            }
+
+            for (LongColumn column : spreadArchive)
+            {
+                column.clear();
+            }
+        }
+
+        if (countSpill != null)
+        {
+            countSpill.clear();
+            spreadSpill.clear();
+        }
+    }
+
+    /**
+     * Releases the spill files, if any
+     * The statistics must not be read or recorded afterwards.
+     */
+    public void close()
+    {
+        if (countSpill != null)
+        {
+            countSpill.close();
+            spreadSpill.close();
+        }
+    }
+
+    // HistoryView IS-A read-only List over a spilled or archived column followed by its hot column
+    private static class HistoryView extends AbstractList<Long> implements RandomAccess
+    {
+        private final ColumnSpill spill;    // older rows on disk, or null
+        private final LongColumn archive;   // older rows downsampled, or null
+        private final LongColumn hot;       // newest rows
+        private final int column;           // column of the group in the spill
+
+        HistoryView(ColumnSpill spill, LongColumn archive, LongColumn hot, int column)
+        {
+            this.spill = spill;
+            this.archive = archive;
+            this.hot = hot;
+            this.column = column;
+        }
+
+        @Override
+        public Long get(int index)
+        {
+            int older = olderRows();
+
+            if (index >= 0 && index < older)
+            {
+                return spill != null ? spill.get(column, index) : archive.get(index);
+            }
+            return hot.get(index - older);
+        }
+
+        @Override
+        public int size()
+        {
+            return olderRows() + hot.size();
+        }
+
+        /**
+         * @return rows before the hot column
+         */
+        private int olderRows()
+        {
+            return spill != null ? spill.getRows() : archive != null ? archive.size() : 0;
+        }
+    }
+
+    // SpreadModeView IS-A read-only List of SpreadMode over the ordinal column
+    private static class SpreadModeView extends AbstractList<SpreadMode> implements RandomAccess
+    {
+        private final List<Long> ordinals;  // view of the ordinal column
+
+        SpreadModeView(List<Long> ordinals)
+        {
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public SpreadMode get(int index)
+        {
+            int ordinal = ordinals.get(index).intValue();
+            return ordinal < 0 ? null : SpreadMode.values()[ordinal];
+        }
+
+        @Override
+        public int size()
+        {
+            return ordinals.size();
+        }
     }
 }
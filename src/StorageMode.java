@@ -0,0 +1,20 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Represents the available storage backends for a Population.
+ */
+
+// StorageMode IS-A enumeration of population storage backends
+public enum StorageMode
+{
+    AUTO,      // heap for ordinary sizes, off-heap for very large populations
+    HEAP,      // primitive arrays on the Java heap
+    OFF_HEAP,  // direct memory chunks outside the Java heap
+    BIT_PACKED, // status and flags as bitplanes, counted a word at a time
+    SPARSE,    // chunks of the grid allocated only once an outbreak reaches them
+    TILED      // 8x8 tiles of the grid stored in Z-order, for neighborhood locality
+}
@@ -0,0 +1,260 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Stores population state in square tiles of the simulation grid, with the
+ * tiles in Z-order (Morton order) instead of row-major order.
+ * A tile of 8x8 people keeps its status codes in 64 consecutive bytes, one
+ * cache line, and its contagious and vaccinated flags in one 64-bit word
+ * each. A person's whole 5x5 neighborhood therefore lies in at most four
+ * tiles, and Z-order keeps the tiles above and below close in memory too,
+ * where the row-major layout spreads the neighborhood over five rows a full
+ * grid width apart. The layout is hidden behind PopulationStore: callers
+ * still address people by their row-major index.
+ */
+
+// TiledPopulationStore IS-A PopulationStore
+// TiledPopulationStore HAS-A tile slot table, per-tile status bytes and contagious and vaccinated words
+public class TiledPopulationStore implements PopulationStore
+{
+    /** log2 of the tile edge length */
+    public static final int TILE_SHIFT = 3;
+    /** Rows and columns per tile; stripes are aligned to whole tile rows */
+    public static final int TILE_SIZE = 1 << TILE_SHIFT;
+    /** People per tile, and the bits in one flag word */
+    public static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final long size;                    // number of people stored
+    private final int columns;                  // grid columns
+    private final int rows;                     // grid rows
+    private final int tileColumns;              // tiles per tile row
+    private final int tileRows;                 // tile rows
+    private final int[] slots;                  // [tileRow * tileColumns + tileColumn] position of the tile in Z-order
+    private final byte[] status;                // HealthStatus codes, TILE_CELLS per slot
+    private final long[] contagious;            // contagious flags, one word per slot
+    private final long[] vaccinated;            // vaccinated flags, one word per slot
+
+    /**
+     * Allocates the tiles for a population laid out in rows of the given width
+     * Every person starts SUSCEPTIBLE and unvaccinated
+     *
+     * @param size number of people
+     * @param columns grid columns
+     */
+    public TiledPopulationStore(long size, int columns)
+    {
+        if (size < 0 || !fits(size, columns))
+        {
+            throw new IllegalArgumentException("Tiled store cannot hold " + size + " people");
+        }
+
+        this.size = size;
+        this.columns = Math.max(1, columns);
+        this.rows = (int) ((size + this.columns - 1) / this.columns);
+        this.tileColumns = (this.columns + TILE_MASK) >>> TILE_SHIFT;
+        this.tileRows = (rows + TILE_MASK) >>> TILE_SHIFT;
+        this.slots = new int[tileColumns * tileRows];
+        this.status = new byte[slots.length * TILE_CELLS];
+        this.contagious = new long[slots.length];
+        this.vaccinated = new long[slots.length];
+
+        // number the tiles in Z-order, skipping codes that fall outside the grid
+        int side = Integer.highestOneBit(Math.max(1, Math.max(tileColumns, tileRows) - 1)) << 1;
+        long codes = (long) side * side;
+        int next = 0;
+
+        for (long code = 0; code < codes && next < slots.length; code++)
+        {
+            int tileRow = compact((int) (code >>> 1));
+            int tileColumn = compact((int) code);
+
+            if (tileRow < tileRows && tileColumn < tileColumns)
+            {
+                slots[tileRow * tileColumns + tileColumn] = next++;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the tiles for this many people fit in Java arrays
+     *
+     * @param size number of people
+     * @param columns grid columns
+     * @return true if a tiled store can be created
+     */
+    public static boolean fits(long size, int columns)
+    {
+        long width = Math.max(1, columns);
+        long tiles = ((width + TILE_MASK) >>> TILE_SHIFT) * (((size + width - 1) / width + TILE_MASK) >>> TILE_SHIFT);
+        return tiles * TILE_CELLS <= HeapPopulationStore.MAX_SIZE;
+    }
+
+    /**
+     * @return tiles per tile row
+     */
+    public int getTileColumns()
+    {
+        return tileColumns;
+    }
+
+    /**
+     * @return number of tile rows
+     */
+    public int getTileRows()
+    {
+        return tileRows;
+    }
+
+    /**
+     * Gets the storage slot of a tile
+     *
+     * @param tileRow tile row
+     * @param tileColumn tile column
+     * @return slot of the tile
+     */
+    public int slotOf(int tileRow, int tileColumn)
+    {
+        return slots[tileRow * tileColumns + tileColumn];
+    }
+
+    /**
+     * Gets the contagious flags of a tile, bit (row << TILE_SHIFT | column)
+     * for the person at that row and column of the tile
+     * Tiles outside the grid read as 0, which lets callers gather a tile's
+     * neighbors without bounds checks
+     *
+     * @param tileRow tile row, may be out of range
+     * @param tileColumn tile column, may be out of range
+     * @return contagious bits of the tile
+     */
+    public long getContagiousTile(int tileRow, int tileColumn)
+    {
+        if (tileRow < 0 || tileRow >= tileRows || tileColumn < 0 || tileColumn >= tileColumns)
+        {
+            return 0;
+        }
+        return contagious[slotOf(tileRow, tileColumn)];
+    }
+
+    /**
+     * Gets the status code of a person by storage slot and cell
+     *
+     * @param slot slot of the tile
+     * @param cell row << TILE_SHIFT | column within the tile
+     * @return HealthStatus code
+     */
+    public byte getTileStatus(int slot, int cell)
+    {
+        return status[slot * TILE_CELLS + cell];
+    }
+
+    /**
+     * Stripes must not share a tile, so that every flag word is written by
+     * a single thread
+     */
+    @Override
+    public int getRowAlignment()
+    {
+        return TILE_SIZE;
+    }
+
+    @Override
+    public SpreadKernel getSpreadKernel()
+    {
+        return new TiledSpreadKernel(this);
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public byte getStatus(long index)
+    {
+        return status[byteOf(index)];
+    }
+
+    @Override
+    public void setStatus(long index, byte value)
+    {
+        status[byteOf(index)] = value;
+    }
+
+    @Override
+    public boolean isVaccinated(long index)
+    {
+        return (vaccinated[slotOf(index)] & (1L << cellOf(index))) != 0;
+    }
+
+    @Override
+    public void setVaccinated(long index)
+    {
+        vaccinated[slotOf(index)] |= 1L << cellOf(index);
+    }
+
+    @Override
+    public boolean isContagious(long index)
+    {
+        return (contagious[slotOf(index)] & (1L << cellOf(index))) != 0;
+    }
+
+    @Override
+    public void setContagious(long index, boolean value)
+    {
+        int slot = slotOf(index);
+
+        if (value)
+        {
+            contagious[slot] |= 1L << cellOf(index);
+        }
+        else
+        {
+            contagious[slot] &= ~(1L << cellOf(index));
+        }
+    }
+
+    private int slotOf(long index)
+    {
+        int row = (int) (index / columns);
+        int column = (int) (index - (long) row * columns);
+        return slots[(row >>> TILE_SHIFT) * tileColumns + (column >>> TILE_SHIFT)];
+    }
+
+    private int cellOf(long index)
+    {
+        int row = (int) (index / columns);
+        int column = (int) (index - (long) row * columns);
+        return (row & TILE_MASK) << TILE_SHIFT | (column & TILE_MASK);
+    }
+
+    private int byteOf(long index)
+    {
+        int row = (int) (index / columns);
+        int column = (int) (index - (long) row * columns);
+        int slot = slots[(row >>> TILE_SHIFT) * tileColumns + (column >>> TILE_SHIFT)];
+        return slot * TILE_CELLS + ((row & TILE_MASK) << TILE_SHIFT | (column & TILE_MASK));
+    }
+
+    /**
+     * Gathers the even bits of a Morton code, undoing the bit interleave
+     *
+     * @param code Morton code, shifted so the wanted bits are the even ones
+     * @return the gathered coordinate
+     */
+    private static int compact(int code)
+    {
+        code &= 0x55555555;
+        code = (code | (code >>> 1)) & 0x33333333;
+        code = (code | (code >>> 2)) & 0x0F0F0F0F;
+        code = (code | (code >>> 4)) & 0x00FF00FF;
+        code = (code | (code >>> 8)) & 0x0000FFFF;
+        return code;
+    }
+}
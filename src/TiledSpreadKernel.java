@@ -0,0 +1,170 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/17/2026
+ *
+ * Responsibilities of class:
+ * Runs the pull scan over a TiledPopulationStore tile by tile. The
+ * contagious words of a tile and its eight neighbors cover every
+ * neighborhood of the tile's people; if all nine are zero the tile is
+ * skipped. Otherwise each grid row from two above the tile to two below it
+ * becomes a 24-bit strip of flags (left, own and right tile), and a
+ * person's count is the popcount of a 5-bit window of the five strips
+ * around their row. Strips slide down in locals, so nothing is allocated.
+ * Draws are the generic ones, so results are identical; only the order of
+ * the collected people differs. Pushes use the generic scan.
+ */
+
+// TiledSpreadKernel IS-A SpreadKernel
+// TiledSpreadKernel HAS-A TiledPopulationStore it reads
+public class TiledSpreadKernel extends SpreadKernel
+{
+    private final TiledPopulationStore store;   // tiled store of the population
+
+    /**
+     * Constructs the kernel of a store
+     *
+     * @param store tiled store of the population
+     */
+    public TiledSpreadKernel(TiledPopulationStore store)
+    {
+        this.store = store;
+    }
+
+    /**
+     * Pulls into the susceptible people of the stripe's exposed tiles
+     *
+     * @param population population to spread disease through
+     * @param disease disease being spread
+     * @param stripe stripe holding the susceptible people
+     * @param own receives the people to infect
+     */
+    @Override
+    public void pull(Population population, Disease disease, int stripe, CellList own)
+    {
+        int cols = population.getColumnCount();
+        int rows = population.getRowCount();
+        long stripeStart = population.getStripeStart(stripe);
+        long stripeEnd = population.getStripeEnd(stripe);
+        CounterRng random = population.getRandom();
+        int day = population.getDay();
+        byte susceptible = HealthStatus.SUSCEPTIBLE.code();
+        int shift = TiledPopulationStore.TILE_SHIFT;
+        int size = TiledPopulationStore.TILE_SIZE;
+
+        if (stripeStart >= stripeEnd)
+        {
+            return;
+        }
+
+        int firstTileRow = (int) (stripeStart / cols) >>> shift;
+        int lastTileRow = (int) ((stripeEnd - 1) / cols) >>> shift;
+
+        for (int tileRow = firstTileRow; tileRow <= lastTileRow; tileRow++)
+        {
+            for (int tileColumn = 0; tileColumn < store.getTileColumns(); tileColumn++)
+            {
+                long upLeft = store.getContagiousTile(tileRow - 1, tileColumn - 1);
+                long up = store.getContagiousTile(tileRow - 1, tileColumn);
+                long upRight = store.getContagiousTile(tileRow - 1, tileColumn + 1);
+                long left = store.getContagiousTile(tileRow, tileColumn - 1);
+                long center = store.getContagiousTile(tileRow, tileColumn);
+                long right = store.getContagiousTile(tileRow, tileColumn + 1);
+                long downLeft = store.getContagiousTile(tileRow + 1, tileColumn - 1);
+                long down = store.getContagiousTile(tileRow + 1, tileColumn);
+                long downRight = store.getContagiousTile(tileRow + 1, tileColumn + 1);
+
+                if ((upLeft | up | upRight | left | center | right | downLeft | down | downRight) == 0)
+                {
+                    continue; // nobody contagious within reach of this tile
+                }
+
+                int slot = store.slotOf(tileRow, tileColumn);
+
+                // strip k holds grid row tileRow * size - 2 + k, bit 8 + j for tile column j
+                int strip0 = tileStrip(upLeft, up, upRight, size - 2);
+                int strip1 = tileStrip(upLeft, up, upRight, size - 1);
+                int strip2 = tileStrip(left, center, right, 0);
+                int strip3 = tileStrip(left, center, right, 1);
+
+                for (int r = 0; r < size; r++)
+                {
+                    int strip4 = r + 2 < size ? tileStrip(left, center, right, r + 2)
+                                              : tileStrip(downLeft, down, downRight, r + 2 - size);
+                    int row = (tileRow << shift) + r;
+
+                    if (row < rows)
+                    {
+                        long rowStart = (long) row * cols;
+
+                        for (int c = 0; c < size; c++)
+                        {
+                            int column = (tileColumn << shift) + c;
+                            long cell = rowStart + column;
+
+                            if (column >= cols || cell < stripeStart || cell >= stripeEnd
+                                || store.getTileStatus(slot, r << shift | c) != susceptible)
+                            {
+                                continue;
+                            }
+
+                            int window = c + size - Disease.NEIGHBORHOOD_RADIUS;
+                            int contagious = Integer.bitCount(strip0 >>> window & 0x1F)
+                                             + Integer.bitCount(strip1 >>> window & 0x1F)
+                                             + Integer.bitCount(strip2 >>> window & 0x1F)
+                                             + Integer.bitCount(strip3 >>> window & 0x1F)
+                                             + Integer.bitCount(strip4 >>> window & 0x1F);
+
+                            if (contagious > 0
+                                && random.uniform(day, cell, CounterRng.INFECTION_PRESSURE) < disease.getExposureProbability(contagious))
+                            {
+                                own.add(cell);
+                            }
+                        }
+                    }
+
+                    strip0 = strip1;
+                    strip1 = strip2;
+                    strip2 = strip3;
+                    strip3 = strip4;
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates a pull: a look at every tile's neighbors, plus a popcount
+     * sum (one per neighborhood row) for the susceptible people of at most
+     * nine tiles per active person
+     *
+     * @param population population about to be spread through
+     * @param active people on the stripes' active lists
+     * @param susceptible susceptible people
+     * @return estimated pull cost
+     */
+    @Override
+    public long estimatePullCost(Population population, long active, long susceptible)
+    {
+        long tileCells = TiledPopulationStore.TILE_CELLS;
+        long scanned = Math.min(susceptible, active * 9 * tileCells);
+        return population.size() / tileCells * 9 + scanned * (2 * Disease.NEIGHBORHOOD_RADIUS + 1);
+    }
+
+    /**
+     * Joins one row of three side-by-side tiles into a strip of flags
+     *
+     * @param left contagious word of the left tile
+     * @param center contagious word of the middle tile
+     * @param right contagious word of the right tile
+     * @param row row within the tiles
+     * @return 24 flags, the left tile's in bits 0-7
+     */
+    private static int tileStrip(long left, long center, long right, int row)
+    {
+        int shift = row << TiledPopulationStore.TILE_SHIFT;
+        return (int) (left >>> shift & 0xFF)
+               | (int) (center >>> shift & 0xFF) << 8
+               | (int) (right >>> shift & 0xFF) << 16;
+    }
+}
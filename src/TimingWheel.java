@@ -0,0 +1,185 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Schedules future events by day in a ring of day buckets.
+ * Events are opaque long values (the caller packs a cell index and an
+ * event type). Each day only that day's bucket is visited, so the work
+ * per day follows the number of events due instead of the number of people.
+ * The ring covers a fixed HORIZON of days, so its memory does not follow
+ * the longest delay ever scheduled. Events further ahead wait in an
+ * overflow list with their due day, and are moved into the ring each time
+ * it comes back around to a multiple of HORIZON.
+ */
+
+// TimingWheel IS-A day-bucketed event scheduler
+// TimingWheel HAS-A ring of CellList buckets, an overflow list, a current day and an event count
+public class TimingWheel
+{
+    /** Days the ring covers; a power of two */
+    public static final int HORIZON = 64;
+
+    private final CellList[] buckets;  // ring of day buckets
+    private final CellList overflow;   // events due HORIZON or more days ahead
+    private final CellList overflowDays; // due day of each overflow event
+    private int day;                   // day of the next bucket to process
+    private long pending;              // number of scheduled events not yet taken
+
+    /**
+     * Constructs an empty wheel starting at the given day
+     *
+     * @param day first day to process
+     */
+    public TimingWheel(int day)
+    {
+        this.buckets = new CellList[HORIZON];
+        this.overflow = new CellList();
+        this.overflowDays = new CellList();
+        this.day = day;
+        this.pending = 0;
+
+        for (int i = 0; i < buckets.length; i++)
+        {
+            buckets[i] = new CellList();
+        }
+    }
+
+    /**
+     * @return day of the next bucket to process
+     */
+    public int getDay()
+    {
+        return day;
+    }
+
+    /**
+     * @return number of scheduled events that have not been processed yet
+     */
+    public long getPending()
+    {
+        return pending;
+    }
+
+    /**
+     * Schedules an event a number of days after the current day
+     *
+     * @param delay days from the current day (0 = the next bucket processed)
+     * @param event packed event value
+     */
+    public void schedule(int delay, long event)
+    {
+        if (delay < 0)
+        {
+            throw new IllegalArgumentException("delay must be >= 0");
+        }
+
+        if (delay >= HORIZON)
+        {
+            overflow.add(event);
+            overflowDays.add((long) day + delay);
+        }
+        else
+        {
+            buckets[(day + delay) & (HORIZON - 1)].add(event);
+        }
+        pending++;
+    }
+
+    /**
+     * Returns the bucket of events due on the current day
+     * The caller processes it and then calls advance()
+     *
+     * @return events due today, in scheduling order
+     */
+    public CellList due()
+    {
+        return buckets[day & (HORIZON - 1)];
+    }
+
+    /**
+     * Clears the current day's bucket and moves to the next day
+     * Once per turn of the ring, overflow events now within HORIZON days
+     * are moved into their buckets
+     */
+    public void advance()
+    {
+        CellList bucket = due();
+        pending -= bucket.size();
+        bucket.clear();
+        day++;
+
+        if ((day & (HORIZON - 1)) == 0 && !overflow.isEmpty())
+        {
+            drainOverflow();
+        }
+    }
+
+    /**
+     * Visits every scheduled event with its delay from the current day
+     * Used to move events into wheels of a different stripe layout
+     *
+     * @param visitor receives (delay, event) for every pending event
+     */
+    public void forEachPending(EventVisitor visitor)
+    {
+        for (int delay = 0; delay < HORIZON; delay++)
+        {
+            CellList bucket = buckets[(day + delay) & (HORIZON - 1)];
+
+            for (int i = 0; i < bucket.size(); i++)
+            {
+                visitor.visit(delay, bucket.get(i));
+            }
+        }
+
+        for (int i = 0; i < overflow.size(); i++)
+        {
+            visitor.visit((int) (overflowDays.get(i) - day), overflow.get(i));
+        }
+    }
+
+    /**
+     * Moves the overflow events due within HORIZON days into the ring,
+     * keeping the rest in order. Called when the current day is a multiple
+     * of HORIZON, so every event reaches the ring before its day.
+     */
+    private void drainOverflow()
+    {
+        int kept = 0;
+
+        for (int i = 0; i < overflow.size(); i++)
+        {
+            long event = overflow.get(i);
+            long due = overflowDays.get(i);
+
+            if (due - day < HORIZON)
+            {
+                buckets[(int) due & (HORIZON - 1)].add(event);
+            }
+            else
+            {
+                overflow.set(kept, event);
+                overflowDays.set(kept, due);
+                kept++;
+            }
+        }
+        overflow.truncate(kept);
+        overflowDays.truncate(kept);
+    }
+
+    /**
+     * Receives the events of a wheel
+     */
+    // EventVisitor IS-A callback for pending events
+    public interface EventVisitor
+    {
+        /**
+         * @param delay days from the wheel's current day
+         * @param event packed event value
+         */
+        void visit(int delay, long event);
+    }
+}
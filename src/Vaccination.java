@@ -56,6 +56,107 @@ public class Vaccination
         p.vaccinate();
     }
 
+    /**
+     * Apply vaccination to the person at an index of a population.
+     * Vaccinates any non-DEAD, non-vaccinated person.
+     *
+     * @param population Population holding the person
+     * @param index index of the person to vaccinate
+     */
+    public void applyTo(Population population, long index)
+    {
+        if (population.getHealthStatus(index) == HealthStatus.DEAD || population.isVaccinated(index))
+        {
+            return;
+        }
+
+        population.vaccinate(index);
+    }
+
+    /**
+     * Decides how many doses to give today
+     * Picks a random fraction between dailyMin and dailyMax of the eligible
+     * people, giving at least one dose while anyone is eligible
+     *
+     * @param eligible number of people alive and unvaccinated
+     * @param random counter-based random source
+     * @param day current simulation day
+     * @return doses to give today (0 if nobody is eligible)
+     */
+    public long dosesFor(long eligible, CounterRng random, int day)
+    {
+        if (eligible <= 0)
+        {
+            return 0;
+        }
+
+        // pick random percent between min and max
+        float dailyPercent = dailyMin + (float) (random.uniform(day, 0, CounterRng.VACCINE_PERCENT) * (dailyMax - dailyMin));
+
+        // number to vaccinate based on eligible population, at least 1 if percent rounds to 0
+        long doses = Math.min(eligible, Math.round((double) eligible * dailyPercent));
+        return Math.max(1, doses);
+    }
+
+    /**
+     * Gives today's doses to a uniform random sample of the eligible people
+     * The sample is drawn from the population's EligibleIndex, so the work
+     * follows the number of doses rather than the population size; without
+     * one (not enough direct memory), it is drawn in a pass over the population
+     *
+     * @param population population to vaccinate
+     * @param day current simulation day
+     * @return doses given
+     */
+    public long vaccinateSample(Population population, int day)
+    {
+        long doses = dosesFor(population.getEligibleCount(), population.getRandom(), day);
+
+        if (doses == 0)
+        {
+            return 0;
+        }
+        EligibleIndex index = population.getEligibleIndex();
+
+        if (index == null)
+        {
+            return vaccinateByScan(population, doses, day);
+        }
+        return index.sample(population, this, doses, day);
+    }
+
+    /**
+     * Gives doses to a uniform random subset of the eligible people in one
+     * pass over the population (selection sampling)
+     *
+     * @param population population to vaccinate
+     * @param doses people to vaccinate, at most the eligible count
+     * @param day current simulation day, keys the random draws
+     * @return doses given
+     */
+    private long vaccinateByScan(Population population, long doses, int day)
+    {
+        CounterRng random = population.getRandom();
+        long remaining = population.getEligibleCount();
+        long given = 0;
+
+        for (long i = 0; i < population.size() && given < doses; i++)
+        {
+            if (population.getStatusCode(i) == HealthStatus.DEAD.code() || population.isVaccinated(i))
+            {
+                continue;
+            }
+
+            if (random.uniform(day, i, CounterRng.VACCINE_PICK) * remaining < doses - given)
+            {
+                applyTo(population, i);
+                given++;
+            }
+            remaining--;
+        }
+        return given;
+    }
+
     // -------------------------
     // Getters and setters
     // -------------------------
@@ -0,0 +1,320 @@
+/**
+ * Lead Author(s):
+ * @author Joseph Roberts
+ *
+ * Version/date: 10/16/2026
+ *
+ * Responsibilities of class:
+ * Maps the simulation grid onto the panel for zooming and panning.
+ * The grid is drawn at a level: at level 0 every person is one source
+ * pixel, at level s every 2^s by 2^s tile of people is one source pixel,
+ * colored from the population's DensityGrid. Each source pixel covers
+ * scale by scale screen pixels. Zooming in halves the level until people
+ * are drawn one by one, then doubles the scale; zooming out does the
+ * reverse, down to the level at which the whole grid fits. Levels whose
+ * tile counts would take too much memory are skipped. The offset is the
+ * screen position of the grid's top-left corner, kept so that a zoom
+ * leaves the person under the mouse in place. Until the user zooms or
+ * pans, the view is fitted to the panel.
+ */
+
+// Viewport IS-A mapping between grid people and screen pixels
+// Viewport HAS-A level, scale, offset, and the grid and panel sizes it was laid out for
+public class Viewport
+{
+    /** Largest number of screen pixels per person */
+    public static final int MAX_SCALE = 64;
+
+    /** Largest number of tiles a DensityGrid level may have */
+    public static final long MAX_DENSITY_TILES = 1L << 22;
+
+    private int level;          // log2 of the people per source pixel side
+    private int scale = 1;      // screen pixels per source pixel side
+    private long offsetX;       // screen x of the grid's left edge, negated
+    private long offsetY;       // screen y of the grid's top edge, negated
+    private boolean fitted = true; // true until the user zooms or pans
+    private int columns;        // grid columns laid out for
+    private int rows;           // grid rows laid out for
+    private int width;          // panel width laid out for
+    private int height;         // panel height laid out for
+
+    /**
+     * Lays the view out for a grid and panel size. A fitted view is fitted
+     * again; a zoomed view keeps its zoom but stays on the grid. A new grid
+     * size always fits the view again.
+     *
+     * @param columns grid columns
+     * @param rows grid rows
+     * @param width panel width in pixels
+     * @param height panel height in pixels
+     */
+    public void layout(int columns, int rows, int width, int height)
+    {
+        if (columns != this.columns || rows != this.rows)
+        {
+            fitted = true;
+        }
+
+        this.columns = columns;
+        this.rows = rows;
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+
+        if (fitted)
+        {
+            fit();
+        }
+        else
+        {
+            clamp();
+        }
+    }
+
+    /**
+     * Fits the whole grid into the panel again on the next layout
+     */
+    public void reset()
+    {
+        fitted = true;
+        columns = 0;
+        rows = 0;
+    }
+
+    /**
+     * Zooms in or out around a point of the panel
+     *
+     * @param steps number of zoom steps, positive to zoom in
+     * @param anchorX panel x that keeps showing the same people
+     * @param anchorY panel y that keeps showing the same people
+     */
+    public void zoom(int steps, int anchorX, int anchorY)
+    {
+        // the anchor in people, before the zoom
+        double people = (double) (1L << level) / scale;
+        double anchorColumn = (anchorX + offsetX) * people;
+        double anchorRow = (anchorY + offsetY) * people;
+
+        for (int i = 0; i < Math.abs(steps); i++)
+        {
+            if (steps > 0)
+            {
+                zoomIn();
+            }
+            else
+            {
+                zoomOut();
+            }
+        }
+
+        people = (double) (1L << level) / scale;
+        offsetX = Math.round(anchorColumn / people) - anchorX;
+        offsetY = Math.round(anchorRow / people) - anchorY;
+        fitted = false;
+        clamp();
+    }
+
+    /**
+     * Moves the view by a mouse drag
+     *
+     * @param dx pixels dragged to the right
+     * @param dy pixels dragged down
+     */
+    public void pan(int dx, int dy)
+    {
+        offsetX -= dx;
+        offsetY -= dy;
+        fitted = false;
+        clamp();
+    }
+
+    /**
+     * Finds the person drawn at a point of the panel; at a level above 0
+     * that is the middle person of the tile drawn there
+     *
+     * @param x panel x
+     * @param y panel y
+     * @return grid column and row packed as (row << 32 | column), or -1 off the grid
+     */
+    public long cellAt(int x, int y)
+    {
+        long sourceX = Math.floorDiv(x + offsetX, scale);
+        long sourceY = Math.floorDiv(y + offsetY, scale);
+
+        if (sourceX < 0 || sourceY < 0 || sourceX >= getSourceWidth() || sourceY >= getSourceHeight())
+        {
+            return -1;
+        }
+
+        int half = (1 << level) >> 1;
+        long column = Math.min(columns - 1, (sourceX << level) + half);
+        long row = Math.min(rows - 1, (sourceY << level) + half);
+        return row << 32 | column;
+    }
+
+    /**
+     * @return log2 of the people per source pixel side
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * @return screen pixels per source pixel side
+     */
+    public int getScale()
+    {
+        return scale;
+    }
+
+    /**
+     * @return screen x of the grid's left edge, negated
+     */
+    public long getOffsetX()
+    {
+        return offsetX;
+    }
+
+    /**
+     * @return screen y of the grid's top edge, negated
+     */
+    public long getOffsetY()
+    {
+        return offsetY;
+    }
+
+    /**
+     * @return source pixels across the grid at the current level
+     */
+    public int getSourceWidth()
+    {
+        return (int) ((columns + (1L << level) - 1) >> level);
+    }
+
+    /**
+     * @return source pixels down the grid at the current level
+     */
+    public int getSourceHeight()
+    {
+        return (int) ((rows + (1L << level) - 1) >> level);
+    }
+
+    /**
+     * @return screen y just below the bottom of the grid
+     */
+    public long getGridBottom()
+    {
+        return (long) getSourceHeight() * scale - offsetY;
+    }
+
+    /**
+     * Fits the whole grid into the panel at the lowest usable level and
+     * the largest whole scale
+     */
+    private void fit()
+    {
+        level = 0;
+
+        while (!isUsable(level) || sourceSize(columns, level) > width || sourceSize(rows, level) > height)
+        {
+            level++;
+        }
+
+        scale = Math.max(1, Math.min(MAX_SCALE, Math.min(width / Math.max(1, getSourceWidth()),
+                                                         height / Math.max(1, getSourceHeight()))));
+        offsetX = 0;
+        offsetY = 0;
+    }
+
+    /**
+     * Goes one zoom step in: a lower level, or a larger scale at level 0
+     */
+    private void zoomIn()
+    {
+        if (level == 0)
+        {
+            scale = Math.min(MAX_SCALE, scale * 2);
+            return;
+        }
+
+        int next = level - 1;
+
+        while (next > 0 && !isUsable(next))
+        {
+            next--; // skip levels whose tile counts are too large
+        }
+
+        if (isUsable(next))
+        {
+            level = next;
+        }
+    }
+
+    /**
+     * Goes one zoom step out: a smaller scale, or a higher level until the
+     * whole grid fits the panel
+     */
+    private void zoomOut()
+    {
+        if (scale > 1)
+        {
+            scale /= 2;
+            return;
+        }
+
+        if (sourceSize(columns, level) <= width && sourceSize(rows, level) <= height)
+        {
+            return; // the whole grid is already on screen
+        }
+
+        level++;
+
+        while (!isUsable(level))
+        {
+            level++;
+        }
+    }
+
+    /**
+     * Keeps the view on the grid: a grid narrower than the panel is shown
+     * from its left edge, a wider one never scrolls past its right edge
+     */
+    private void clamp()
+    {
+        long gridWidth = (long) getSourceWidth() * scale;
+        long gridHeight = (long) getSourceHeight() * scale;
+
+        offsetX = gridWidth <= width ? 0 : Math.max(0, Math.min(offsetX, gridWidth - width));
+        offsetY = gridHeight <= height ? 0 : Math.max(0, Math.min(offsetY, gridHeight - height));
+    }
+
+    /**
+     * Checks if the grid can be drawn at a level: person by person while
+     * the runner's snapshots can all hold a copy of every person on the
+     * heap (PopulationSnapshot.getMaxPeople), or by tiles while the tile
+     * counts stay small enough
+     *
+     * @param level level to check
+     * @return true if the level can be drawn
+     */
+    private boolean isUsable(int level)
+    {
+        if (level == 0)
+        {
+            return (long) columns * rows <= PopulationSnapshot.getMaxPeople();
+        }
+        return (long) sourceSize(columns, level) * sourceSize(rows, level) <= MAX_DENSITY_TILES;
+    }
+
+    /**
+     * Computes the source pixels covering a number of people at a level
+     *
+     * @param people people along one side
+     * @param level level to draw at
+     * @return source pixels along that side
+     */
+    private static int sourceSize(int people, int level)
+    {
+        return (int) ((people + (1L << level) - 1) >> level);
+    }
+}